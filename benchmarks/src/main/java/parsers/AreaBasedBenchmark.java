@@ -0,0 +1,73 @@
+package parsers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Source checks, result checks and source/result comparison of the area based puzzles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AreaBasedBenchmark {
+
+    @Param({"kemaru", "matoku"})
+    String family;
+
+    @Param({"1", "10", "100", "1000"})
+    int scale;
+
+    private AreaBased checker;
+    private List<String> sourceFileNames;
+    private List<String> resultFileNames;
+    private List<AreaBased.Areas> sources;
+    private List<Integer[][]> results;
+
+    @Setup
+    public void setup() {
+        String pathName = family + "/";
+        checker = "kemaru".equals(family) ? new Kemaru(pathName) : new Matoku(pathName);
+        sourceFileNames = Corpus.files(pathName, Corpus::isSource, scale);
+        resultFileNames = Corpus.files(pathName, Corpus::isResult, scale);
+
+        List<String> pairedSources = Corpus.files(pathName, Corpus::isSource, 1).stream()
+                .filter(fileName -> new File(resultFileName(fileName)).exists())
+                .collect(Collectors.toList());
+        sources = Corpus.repeat(pairedSources.stream()
+                .map(fileName -> checker.checkSourceFile(fileName).getTwo())
+                .collect(Collectors.toList()), scale);
+        results = Corpus.repeat(pairedSources.stream()
+                .map(fileName -> checker.checkResultFile(resultFileName(fileName)).getTwo())
+                .collect(Collectors.toList()), scale);
+    }
+
+    private static String resultFileName(String sourceFileName) {
+        return CommonChecker.subString(sourceFileName, -4) + "_res.txt";
+    }
+
+    @Benchmark
+    public void checkSourceFile(Blackhole blackhole) {
+        for (String fileName : sourceFileNames)
+            blackhole.consume(checker.checkSourceFile(fileName));
+    }
+
+    @Benchmark
+    public void checkResultFile(Blackhole blackhole) {
+        for (String fileName : resultFileNames)
+            blackhole.consume(checker.checkResultFile(fileName));
+    }
+
+    @Benchmark
+    public void compareData(Blackhole blackhole) {
+        for (int i = 0; i < sources.size(); i++)
+            blackhole.consume(checker.compareData(sources.get(i), results.get(i)));
+    }
+}
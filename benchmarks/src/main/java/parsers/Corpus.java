@@ -0,0 +1,50 @@
+package parsers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark corpora built from the puzzle directories (the benchmarks are run from the root folder)
+ */
+final class Corpus {
+
+    private Corpus() {
+    }
+
+    /**
+     * @param pathName puzzle directory, e.g. "sudoku/"
+     * @param filter the files to keep
+     * @param scale how many times the real corpus is repeated (1 = the real corpus)
+     * @return the file names, sorted, repeated scale times
+     */
+    static List<String> files(String pathName, Predicate<String> filter, int scale) {
+        File[] files = new File(pathName).listFiles();
+        if (files == null)
+            throw new IllegalStateException("Missing directory '" + pathName + "': run the benchmarks from the root folder");
+        List<String> fileNames = Arrays.stream(files)
+                .map(File::getPath)
+                .filter(filter)
+                .sorted()
+                .collect(Collectors.toList());
+        return repeat(fileNames, scale);
+    }
+
+    static <T> List<T> repeat(List<T> items, int scale) {
+        List<T> result = new ArrayList<>(items.size() * scale);
+        for (int i = 0; i < scale; i++)
+            result.addAll(items);
+        return result;
+    }
+
+    static boolean isResult(String fileName) {
+        return fileName.endsWith("_res.txt");
+    }
+
+    static boolean isSource(String fileName) {
+        return !isResult(fileName) && !fileName.endsWith("_computed.txt");
+    }
+}
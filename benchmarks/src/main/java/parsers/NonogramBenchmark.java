@@ -0,0 +1,53 @@
+package parsers;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line constraint check on synthetic lines, from the size of the real puzzles (10) up to a thousand times longer
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NonogramBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int lineLength;
+
+    private Integer[] line;
+    private int[] constraints;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        line = new Integer[lineLength];
+        List<Integer> blocks = new ArrayList<>();
+        int block = 0;
+        for (int i = 0; i < lineLength; i++) {
+            line[i] = random.nextInt(2);
+            if (line[i] == 1)
+                block++;
+            else if (block > 0) {
+                blocks.add(block);
+                block = 0;
+            }
+        }
+        if (block > 0)
+            blocks.add(block);
+        constraints = blocks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public List<String> checkConstraint() {
+        List<String> errors = new ArrayList<>();
+        Nonogram.checkConstraint(errors, constraints, line, "in benchmark");
+        return errors;
+    }
+}
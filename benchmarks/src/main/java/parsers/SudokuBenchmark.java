@@ -0,0 +1,32 @@
+package parsers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SudokuBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int scale;
+
+    private List<String> fileNames;
+
+    @Setup
+    public void setup() {
+        fileNames = Corpus.files("sudoku/", fileName -> true, scale);
+    }
+
+    @Benchmark
+    public void checkFile(Blackhole blackhole) {
+        for (String fileName : fileNames)
+            blackhole.consume(Sudoku.checkFile(fileName));
+    }
+}
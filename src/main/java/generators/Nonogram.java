@@ -2,59 +2,145 @@ package generators;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import parsers.NonogramSolver;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+/**
+ * Generator of nonograms with a single solution.
+ * Without argument, one 10x10 grid is printed and written to nonogram/generated.json.
+ * Bulk mode: count size [density [seed [directory]]], e.g. 10000 20 0.6 42 target/nonogram/
+ * writes nonogram1.json to nonogram10000.json, generated in parallel: every puzzle has its own random generator,
+ * split in order from the seed, so that a run is reproducible whatever the threads scheduling.
+ * At density 0.5, a 30x30 grid takes about 0.2 s, but a 50x50 one several seconds: the solver budget runs out
+ * on most of them (see {@link NonogramSolver}), and they are rejected.
+ */
 public class Nonogram {
+    private static final double DEFAULT_DENSITY = 0.5;
+    private static final String DEFAULT_DIRECTORY = "target/nonogram/";
+
     private final int size;
+    private final double density;
+    private final SplittableRandom random;
     private Data data;
 
     public static void main(String[] args) {
-        new Nonogram(10);
+        if (args.length == 0) {
+            Nonogram nonogram = new Nonogram(10, DEFAULT_DENSITY, new SplittableRandom());
+            nonogram.print();
+            nonogram.printTips();
+            System.out.print(nonogram.writeJSON("nonogram/generated.json"));
+            return;
+        }
+
+        int count = Integer.parseInt(args[0]);
+        int size = Integer.parseInt(args[1]);
+        double density = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_DENSITY;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        String directory = args.length > 4 ? args[4] : DEFAULT_DIRECTORY;
+        generateAll(count, size, density, seed, directory);
     }
 
-    private Nonogram(int size, String fileName) {
-        this.size = size;
-        data = new Data(size);
-        generate();
-        print();
-        extractTips();
-        printTips();
-        writeJSON(fileName);
+    private static void generateAll(int count, int size, double density, long seed, String directory) {
+        try {
+            Files.createDirectories(Paths.get(directory));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        SplittableRandom[] randoms = IntStream.range(0, count).mapToObj(i -> seeds.split()).toArray(SplittableRandom[]::new);
+
+        long start = System.currentTimeMillis();
+        IntStream.range(0, count).parallel().forEach(i ->
+                new Nonogram(size, density, randoms[i]).writeJSON(Paths.get(directory, "nonogram" + (i + 1) + ".json").toString())
+        );
+        System.out.println(count + " nonograms " + size + "x" + size + " (density=" + density + ", seed=" + seed + ") written to "
+                + directory + " in " + (System.currentTimeMillis() - start) + " ms");
     }
 
-    private Nonogram(int size) {
-        this(size, "nonogram/generated.json");
+    private Nonogram(int size, double density, SplittableRandom random) {
+        this.size = size;
+        this.density = density;
+        this.random = random;
+        data = new Data(size);
+        generateUnique();
     }
 
-    private static int generateRandom() {
-        double random = Math.random();
-        if(random < 0.5)
-            return 0;
-        return 1;
+    private int generateRandom() {
+        return random.nextDouble() < density ? 1 : 0;
     }
 
+    /**
+     * Fill the grid randomly, then repair the empty lines (instead of generating a whole new grid):
+     * a random cell of each empty row is filled, then a random cell of each empty column (no row can become empty)
+     */
     private void generate() {
         IntStream.range(0, size).forEach(row ->
             IntStream.range(0, size).forEach(column ->
                 data.solution[row][column] = generateRandom()
             )
         );
-        Arrays.stream(data.solution)
-                .filter(row -> Arrays.stream(row).noneMatch(v -> v == 1))
-                .findFirst()
-                .ifPresent(x -> generate());
         IntStream.range(0, size)
-                .mapToObj(col -> Arrays.stream(data.solution).mapToInt(row -> row[col]).toArray())
-                .filter(column -> Arrays.stream(column).noneMatch(v -> v == 1))
-                .findFirst()
-                .ifPresent(x -> generate());
+                .filter(row -> Arrays.stream(data.solution[row]).noneMatch(v -> v == 1))
+                .forEach(row -> data.solution[row][random.nextInt(size)] = 1);
+        IntStream.range(0, size)
+                .filter(col -> Arrays.stream(data.solution).noneMatch(row -> row[col] == 1))
+                .forEach(col -> data.solution[random.nextInt(size)][col] = 1);
+    }
+
+    /**
+     * Generate grids until their tips have a single solution: an ambiguous grid is first repaired by filling
+     * a cell which is empty in the grid and filled in another solution (the tips no longer accept that solution),
+     * and rejected when it is still ambiguous after a few repairs, or when the solver budget runs out
+     */
+    private void generateUnique() {
+        do {
+            generate();
+            extractTips();
+        } while (!repairAmbiguity());
+    }
+
+    private boolean repairAmbiguity() {
+        for (int repair = 0; repair < size; repair++) {
+            NonogramSolver solver = new NonogramSolver(toArray(data.rows), toArray(data.columns));
+            int solutions = solver.countSolutions(2);
+            if (solutions == 1)
+                return true;
+            if (solutions == NonogramSolver.UNDETERMINED)
+                return false;
+            int[][] other = Arrays.deepEquals(solver.solution(0), data.solution) ? solver.solution(1) : solver.solution(0);
+            fillDifferentCell(other);
+            extractTips();
+        }
+        return false;
+    }
+
+    // both solutions have as many filled cells, so one is empty in the grid and filled in the other solution
+    private void fillDifferentCell(int[][] other) {
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                if (data.solution[row][column] == 0 && other[row][column] == 1) {
+                    data.solution[row][column] = 1;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int[][] toArray(List<List<Integer>> structure) {
+        return structure.stream()
+                .map(values -> values.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
     }
 
     private void print() {
@@ -117,7 +203,10 @@ public class Nonogram {
         return structList;
     }
 
-    private void writeJSON(String fileName) {
+    /**
+     * @return the written JSON content
+     */
+    private JSONObject writeJSON(String fileName) {
         JSONObject rootObj = new JSONObject();
 
         rootObj.put("rows", writeStructure(data.rows));
@@ -128,8 +217,7 @@ public class Nonogram {
         } catch (IOException e) {
             e.printStackTrace();
         }
-
-        System.out.print(rootObj);
+        return rootObj;
     }
 
     private class Data {
@@ -0,0 +1,211 @@
+package parsers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Ajoutlettre puzzles: clues "BRAIS + A" (a word and the letters to add), each one preceded by an optional comment
+ * giving its definition ("// \"Remise a la caisse\"") or a pattern of the answer ("// S_____"), then rows of words
+ * of the same length separated by commas (a comment before a row is a hint for it).
+ * The answer of a clue is an anagram of all its letters, found in the {@link AnagramIndex} of a local word list
+ * ({@value #DICTIONARY_PROPERTY} system property, {@value #DEFAULT_DICTIONARY} by default), loaded once for the directory:
+ * without this list, an error is reported and only the layout of the files is checked.
+ */
+public class Ajoutlettre extends CommonChecker implements PuzzleChecker {
+
+    static final String DICTIONARY_PROPERTY = "ajoutlettre.dictionary";
+    static final String DEFAULT_DICTIONARY = "dictionary.txt";
+
+    private static final String COMMENT = "//";
+    private static final Pattern CLUE = Pattern.compile("([A-Z]+) \\+ ([A-Z]+)");
+    private static final Pattern ROW = Pattern.compile("[A-Z]+(, [A-Z]+)*");
+    private static final Pattern ANSWER_PATTERN = Pattern.compile("[A-Z_]+");
+
+    public static void main(String[] args) {
+        new Ajoutlettre().check(Report.console());
+    }
+
+    public String pathName() {
+        return "ajoutlettre/";
+    }
+
+    static String dictionary() {
+        return System.getProperty(DICTIONARY_PROPERTY, DEFAULT_DICTIONARY);
+    }
+
+    public void check(Report report) {
+        List<String> fileNames = Arrays.stream(new File(pathName()).listFiles())
+                .map(File::getPath)
+                .sorted()
+                .collect(Collectors.toList());
+
+        String dictionary = dictionary();
+        AnagramIndex index = null;
+        if (new File(dictionary).exists()) {
+            long start = System.nanoTime();
+            index = AnagramIndex.load(dictionary);
+            report.info("Word list " + dictionary + ": " + index.size() + " words indexed in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } else
+            report.error("No word list " + dictionary + " (-D" + DICTIONARY_PROPERTY + "=...): the clues cannot be answered");
+
+        Manifest manifest = Manifest.load(pathName(), getClass(), Collections.singletonList(dictionary));
+        manifest.filesToCheck(fileNames, fileName -> fileName);
+
+        AnagramIndex sharedIndex = index;
+        Map<String, BiSupplier<List<String>, List<String>>> fileNameToData = checkFiles(fileNames, fileName -> checkFile(fileName, sharedIndex), configuredThreads(), manifest);
+
+        report.info("\n### Consistency checks ###\n");
+
+        fileNameToData.forEach((fileName, data) -> {
+            List<String> notes;
+            if (manifest.isReused(fileName))
+                notes = manifest.notes(fileName);
+            else {
+                notes = data.getTwo() == null ? Collections.emptyList() : data.getTwo();
+                manifest.recordNotes(fileName, notes);
+            }
+            if (!data.getOne().isEmpty()) {
+                report.error(fileName);
+                data.getOne().forEach(problem -> report.error("\t" + problem));
+            } else
+                report.info(fileName + " --> OK");
+            notes.forEach(note -> report.info("\t" + note));
+        });
+
+        manifest.save();
+    }
+
+    /**
+     * A clue and its optional comment
+     */
+    static final class Clue {
+        final String word;
+        final String added;
+        final String comment; // null when there is none
+        final int line;
+
+        private Clue(String word, String added, String comment, int line) {
+            this.word = word;
+            this.added = added;
+            this.comment = comment;
+            this.line = line;
+        }
+
+        /**
+         * @return the pattern of the answer given by the comment ('_' for an unknown letter), null when it is a definition
+         */
+        String answerPattern() {
+            return comment != null && ANSWER_PATTERN.matcher(comment).matches() ? comment : null;
+        }
+
+        boolean matches(String answer) {
+            String pattern = answerPattern();
+            if (pattern == null)
+                return true;
+            if (pattern.length() != answer.length())
+                return false;
+            for (int i = 0; i < pattern.length(); i++)
+                if (pattern.charAt(i) != '_' && pattern.charAt(i) != answer.charAt(i))
+                    return false;
+            return true;
+        }
+
+        public String toString() {
+            return word + " + " + added;
+        }
+    }
+
+    /**
+     * Content of a file
+     */
+    static final class Puzzle {
+        final List<Clue> clues;
+        final List<List<String>> rows;
+
+        private Puzzle(List<Clue> clues, List<List<String>> rows) {
+            this.clues = clues;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * @return the clues and the rows of words of the file, the lines which are none of them being reported
+     */
+    static Puzzle parse(List<String> lines, List<String> errors) {
+        List<Clue> clues = new ArrayList<>();
+        List<List<String>> rows = new ArrayList<>();
+        String comment = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.startsWith(COMMENT)) {
+                comment = line.substring(COMMENT.length()).trim();
+                if (comment.length() > 1 && comment.startsWith("\"") && comment.endsWith("\""))
+                    comment = comment.substring(1, comment.length() - 1);
+                continue;
+            }
+
+            Matcher clue = CLUE.matcher(line);
+            if (clue.matches()) {
+                clues.add(new Clue(clue.group(1), clue.group(2), comment, i + 1));
+                comment = null;
+                continue;
+            }
+            comment = null; // a comment may also be a hint for the row of words
+
+            if (ROW.matcher(line).matches()) {
+                List<String> row = Arrays.asList(line.split(", "));
+                if (row.stream().anyMatch(word -> word.length() != row.get(0).length()))
+                    errors.add("Not the same length for all the words of the row: line #" + (i + 1));
+                rows.add(row);
+            } else if (!line.isEmpty())
+                errors.add("Not a clue, a row of words nor a comment: line #" + (i + 1) + " (" + line + ")");
+        }
+        return new Puzzle(clues, rows);
+    }
+
+    /**
+     * Check the layout of a file and, with a word list, answer its clues: each clue must have at least one answer
+     * (a word of the list other than the word of the clue, matching the pattern of the comment if any)
+     * @param index anagrams of the word list, null when there is none
+     * @return composite: list of errors found and the answers of the clues (null when the file cannot be read)
+     */
+    static BiSupplier<List<String>, List<String>> checkFile(String fileName, AnagramIndex index) {
+        List<String> errors = new ArrayList<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Puzzle puzzle = parse(lines, errors);
+        if (puzzle.clues.isEmpty())
+            errors.add("No clue found");
+        if (index == null)
+            return buildBiSupplier(errors, Collections.emptyList());
+
+        List<String> answers = new ArrayList<>();
+        for (Clue clue : puzzle.clues) {
+            List<String> found = index.anagrams(clue.word + clue.added).stream()
+                    .filter(answer -> !answer.equals(clue.word) && clue.matches(answer))
+                    .collect(Collectors.toList());
+            if (found.isEmpty())
+                errors.add("No word of the word list for: " + clue + " (line #" + clue.line + ")");
+            else
+                answers.add(clue + " = " + String.join(" or ", found));
+        }
+        return buildBiSupplier(errors, answers);
+    }
+
+}
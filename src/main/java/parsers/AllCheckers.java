@@ -0,0 +1,70 @@
+package parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs all the puzzle checkers in a single JVM, on a shared executor, then prints a combined summary.
+ * It fails with an exception when errors were reported, unless the {@value #REPORT_ONLY_PROPERTY} system property is set:
+ * run by exec:java in the JVM of Maven, this gives a build failure instead of stopping Maven.
+ */
+public class AllCheckers {
+
+    static final String REPORT_ONLY_PROPERTY = "checker.reportOnly";
+
+    public static void main(String[] args) {
+        List<PuzzleChecker> checkers = new ArrayList<>();
+        ServiceLoader.load(PuzzleChecker.class).forEach(checkers::add);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(checkers.size(), Runtime.getRuntime().availableProcessors())));
+        List<Future<CommonChecker.BiSupplier<Report, Long>>> futures = checkers.stream()
+                .map(checker -> executor.submit(() -> runChecker(checker)))
+                .collect(Collectors.toList());
+
+        List<String> summary = new ArrayList<>();
+        int totalErrors = 0;
+        for (int i = 0; i < checkers.size(); i++) {
+            String pathName = checkers.get(i).pathName();
+            int errors;
+            long duration;
+            try {
+                CommonChecker.BiSupplier<Report, Long> result = futures.get(i).get();
+                System.out.println("\n##### " + pathName + " #####");
+                result.getOne().replay();
+                errors = result.getOne().errorCount();
+                duration = result.getTwo();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                System.err.println("Checker failed for " + pathName + ": " + e.getCause());
+                errors = 1;
+                duration = 0;
+            }
+            totalErrors += errors;
+            summary.add(pathName + " --> " + (errors == 0 ? "OK" : errors + " error line(s)") + " (" + TimeUnit.NANOSECONDS.toMillis(duration) + " ms)");
+        }
+        executor.shutdown();
+
+        System.out.println("\n### Summary ###\n");
+        summary.forEach(System.out::println);
+        System.out.println("Total: " + totalErrors + " error line(s) in " + checkers.size() + " checkers");
+
+        if (totalErrors > 0 && !Boolean.getBoolean(REPORT_ONLY_PROPERTY))
+            throw new IllegalStateException(totalErrors + " error line(s) reported by the checkers");
+    }
+
+    private static CommonChecker.BiSupplier<Report, Long> runChecker(PuzzleChecker checker) {
+        Report report = Report.buffered();
+        long start = System.nanoTime();
+        checker.check(report);
+        return CommonChecker.buildBiSupplier(report, System.nanoTime() - start);
+    }
+}
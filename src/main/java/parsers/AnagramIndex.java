@@ -0,0 +1,93 @@
+package parsers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Words of a word list grouped by their signature (their letters sorted): the anagrams of some letters are found
+ * with a single hash lookup. The words are written in capital letters from A to Z (accents removed),
+ * the other words of the list (hyphens, apostrophes...) are ignored.
+ * The index is immutable once loaded: it can be shared by the threads checking several files.
+ */
+final class AnagramIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}");
+
+    private final Map<String, List<String>> wordsBySignature;
+    private final int size;
+
+    private AnagramIndex(Map<String, List<String>> wordsBySignature, int size) {
+        this.wordsBySignature = wordsBySignature;
+        this.size = size;
+    }
+
+    /**
+     * @param fileName word list, one word per line (UTF-8)
+     */
+    static AnagramIndex load(String fileName) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(fileName), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, TreeSet<String>> groups = new HashMap<>();
+        for (String line : lines) {
+            String word = normalize(line);
+            if (!word.isEmpty() && word.chars().allMatch(letter -> letter >= 'A' && letter <= 'Z'))
+                groups.computeIfAbsent(signature(word), signature -> new TreeSet<>()).add(word);
+        }
+
+        Map<String, List<String>> wordsBySignature = new HashMap<>(groups.size() * 2);
+        int size = 0;
+        for (Map.Entry<String, TreeSet<String>> group : groups.entrySet()) {
+            wordsBySignature.put(group.getKey(), Collections.unmodifiableList(new ArrayList<>(group.getValue())));
+            size += group.getValue().size();
+        }
+        return new AnagramIndex(Collections.unmodifiableMap(wordsBySignature), size);
+    }
+
+    /**
+     * @return the word in capital letters without accents
+     */
+    static String normalize(String word) {
+        return ACCENTS.matcher(Normalizer.normalize(word.trim(), Normalizer.Form.NFD)).replaceAll("").toUpperCase();
+    }
+
+    /**
+     * @return the letters of the word, sorted
+     */
+    static String signature(String letters) {
+        char[] chars = letters.toCharArray();
+        Arrays.sort(chars);
+        return new String(chars);
+    }
+
+    /**
+     * @return the words of the list written with exactly these letters (in alphabetical order)
+     */
+    List<String> anagrams(String letters) {
+        return wordsBySignature.getOrDefault(signature(letters), Collections.emptyList());
+    }
+
+    /**
+     * @return the number of distinct words of the index
+     */
+    int size() {
+        return size;
+    }
+
+}
@@ -2,18 +2,21 @@ package parsers;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
-import java.util.function.Function;
-import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public abstract class AreaBased extends DifferentFormat<List<String>> {
+public abstract class AreaBased extends DifferentFormat<AreaBased.Areas> {
 
     final Properties properties;
+    private final String propertiesFileName;
 
     AreaBased(String pathName, String propertiesFileName) {
         super(pathName);
+        this.propertiesFileName = propertiesFileName;
         try {
             properties = readProperties(propertiesFileName);
         } catch (Exception e) {
@@ -31,13 +34,75 @@ public abstract class AreaBased extends DifferentFormat<List<String>> {
         return prop;
     }
 
+    /**
+     * A rule of a source file, compiled once: its cells as flat indices and what the subclass needs to check its filling
+     */
+    abstract static class Area {
+        final String rule;
+        final int[] rows;
+        final int[] columns;
+        int[] cells; // row * width + column, set once the size of the grid is known
+
+        /**
+         * @param cellIds cell names (A1, B3...)
+         */
+        Area(String rule, String[] cellIds) {
+            this.rule = rule;
+            this.rows = new int[cellIds.length];
+            this.columns = new int[cellIds.length];
+            for (int i = 0; i < cellIds.length; i++) {
+                rows[i] = rowNameToIndex(cellIds[i].substring(0, 1)) - 1;
+                columns[i] = Integer.parseInt(cellIds[i].substring(1)) - 1;
+            }
+        }
+
+        private void locate(int width) {
+            cells = new int[rows.length];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = rows[i] * width + columns[i];
+        }
+
+        /**
+         * @param values flat result grid (row * width + column), {@link GridReader#EMPTY} for a missing cell
+         */
+        protected abstract void checkFilling(int[] values, List<String> errors);
+    }
+
+    /**
+     * All the compiled rules of a source file
+     */
+    static final class Areas {
+        final List<Area> areas;
+        final int height;
+        final int width;
+
+        Areas(List<Area> areas) {
+            this.areas = areas;
+            this.height = areas.stream().flatMapToInt(area -> Arrays.stream(area.rows)).max().orElseThrow() + 1;
+            this.width = areas.stream().flatMapToInt(area -> Arrays.stream(area.columns)).max().orElseThrow() + 1;
+            areas.forEach(area -> area.locate(width));
+        }
+
+        /**
+         * @return the result grid as a flat array of the source size, {@link GridReader#EMPTY} for the missing cells
+         */
+        int[] flatten(Integer[][] results) {
+            int[] values = new int[height * width];
+            Arrays.fill(values, GridReader.EMPTY);
+            for (int row = 0; row < Math.min(height, results.length); row++)
+                for (int col = 0; col < Math.min(width, results[row].length); col++)
+                    values[row * width + col] = results[row][col];
+            return values;
+        }
+    }
+
     /**
      * Check errors in input files
      *
      * @param fileName the name of the file to check
-     * @return composite: list of errors found and data: list of rules read
+     * @return composite: list of errors found and data: the compiled rules
      */
-    public BiSupplier<List<String>, List<String>> checkSourceFile(String fileName) {
+    public BiSupplier<List<String>, Areas> checkSourceFile(String fileName) {
         List<String> errors = new ArrayList<>();
 
         List<String> rules = new ArrayList<>();
@@ -58,53 +123,58 @@ public abstract class AreaBased extends DifferentFormat<List<String>> {
             System.out.println("Line : " + lineRead);
         }
 
-        List<String> cells = extractCells(rules);
+        List<String> ruleErrors = new ArrayList<>();
+        Areas areas = new Areas(rules.stream().map(rule -> compileArea(rule, ruleErrors)).collect(Collectors.toList()));
 
-        Integer maxRowNumber = cells.stream().map(findRowNumber).max(Integer::compareTo).orElseThrow();
-        Integer maxColNumber = cells.stream().map(findColumnNumber).max(Integer::compareTo).orElseThrow();
+        checkCells(areas, errors);
 
-        int[][] counts = new int[maxRowNumber + 1][maxColNumber + 1];
-        crossStreams(
-                () -> IntStream.rangeClosed(0, maxRowNumber),
-                () -> IntStream.rangeClosed(0, maxColNumber),
-                (row, col) -> counts[row][col] = 0
-        );
+        errors.addAll(ruleErrors);
 
-        cells.forEach(item -> counts[findRowNumber.apply(item)][findColumnNumber.apply(item)]++ );
-
-        crossStreams(() -> IntStream.rangeClosed(0, maxRowNumber), () -> IntStream.rangeClosed(0, maxColNumber), (row, col) -> {
-            if (counts[row][col] > 1)
-                errors.add("Found the same cell several times (" + counts[row][col] + "): " + indexToRowName(row + 1) + (col + 1));
-            else if (counts[row][col] == 0)
-                errors.add("Didn't find the cell: " + indexToRowName(row + 1) + (col + 1));
-        });
-
-        processSourceData(rules, errors);
-
-        return buildBiSupplier(errors, rules);
+        return buildBiSupplier(errors, areas);
     }
 
-    protected UnaryOperator<String> cellIdExtractor() {
-        return UnaryOperator.identity();
+    /**
+     * Check how the areas cover the grid: by default, each cell belongs to exactly one area
+     * @param errors receives the problems found
+     */
+    protected void checkCells(Areas areas, List<String> errors) {
+        int[] counts = new int[areas.height * areas.width];
+        areas.areas.forEach(area -> Arrays.stream(area.cells).forEach(cell -> counts[cell]++));
+
+        crossStreams(() -> IntStream.range(0, areas.height), () -> IntStream.range(0, areas.width), (row, col) -> {
+            int count = counts[row * areas.width + col];
+            if (count > 1)
+                errors.add("Found the same cell several times (" + count + "): " + cellName(row, col));
+            else if (count == 0)
+                errors.add("Didn't find the cell: " + cellName(row, col));
+        });
     }
 
-    protected abstract List<String> extractCells(List<String> rules);
-
-    private static final Function<String, Integer> extractRowNumber = cellId -> rowNameToIndex(cellId.substring(0, 1)) - 1;
-    private static final Function<String, Integer> extractColumnNumber = cellId -> Integer.valueOf(cellId.substring(1)) - 1;
-
-    final Function<String, Integer> findRowNumber = cellIdExtractor().andThen(extractRowNumber);
-    final Function<String, Integer> findColumnNumber = cellIdExtractor().andThen(extractColumnNumber);
+    /**
+     * Parse a rule of a source file
+     * @param errors receives the problems found in the rule
+     */
+    protected abstract Area compileArea(String rule, List<String> errors);
 
-    protected abstract void processSourceData(List<String> rules, List<String> errors);
+    protected List<String> dependencies() {
+        return Collections.singletonList(propertiesFileName);
+    }
 
-    public List<String> compareData(List<String> rules, Integer[][] results) {
+    public List<String> compareData(Areas areas, Integer[][] results) {
         List<String> errors = new ArrayList<>();
-        rules.forEach(rule -> specificCheckOnAreaFilling(rule, results, errors));
+        int[] values = areas.flatten(results);
+        areas.areas.forEach(area -> area.checkFilling(values, errors));
         return errors;
     }
 
-    protected abstract void specificCheckOnAreaFilling(String rule, Integer[][] results, List<String> errors);
+    /**
+     * @param row row index (starts at 0)
+     * @param column column index (starts at 0)
+     * @return the name of the cell in the source files (A1, B3...)
+     */
+    static String cellName(int row, int column) {
+        return "" + indexToRowName(row + 1) + (column + 1);
+    }
 
     /**
      * Converts an integer into a char
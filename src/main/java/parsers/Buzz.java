@@ -0,0 +1,196 @@
+package parsers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Buzz: a Latin square (the digits from 1 to the size once in each row and each column) with inequalities between
+ * adjacent cells. A source draws the cells on the even lines ('_' for an empty cell), separated by a space, '&lt;' or '&gt;',
+ * and the vertical inequalities on the odd lines under the cells: '^' when the upper cell is the smaller one,
+ * 'v' or '#' when it is the greater one. The layout is compiled into a graph of inequalities over flat cell indices.
+ */
+public class Buzz extends DifferentFormat<Buzz.Layout> {
+
+    static final int MAX_SIZE = 9;
+
+    public Buzz() {
+        this("buzz/");
+    }
+
+    Buzz(String pathName) {
+        super(pathName);
+    }
+
+    public static void main(String[] args) {
+        new Buzz().run();
+    }
+
+    /**
+     * A compiled source: the given digits and the inequalities, greater[i] &gt; smaller[i]
+     */
+    static final class Layout {
+        final int size;
+        final int[] givens; // row * size + column, GridReader.EMPTY for an empty cell
+        final int[] greater;
+        final int[] smaller;
+
+        private Layout(int size, int[] givens, int[] greater, int[] smaller) {
+            this.size = size;
+            this.givens = givens;
+            this.greater = greater;
+            this.smaller = smaller;
+        }
+
+        String inequalityName(int inequality) {
+            return cellName(greater[inequality], size) + " > " + cellName(smaller[inequality], size);
+        }
+    }
+
+    protected BiSupplier<List<String>, Layout> checkSourceFile(String fileName) {
+        BiSupplier<List<String>, Layout> source = readFile(fileName);
+        if (source.getOne().isEmpty())
+            checkSolutions(source.getTwo(), source.getOne());
+        return source;
+    }
+
+    /**
+     * Compile a source file and check its given digits, without solving it
+     * @return composite: the list of errors found and the compiled layout
+     */
+    static BiSupplier<List<String>, Layout> readFile(String fileName) {
+        List<String> errors = new ArrayList<>();
+        Layout layout = parse(GridReader.read(fileName), errors);
+        if (errors.isEmpty())
+            checkGivens(layout, errors);
+        return buildBiSupplier(errors, layout);
+    }
+
+    static Layout parse(GridReader grid, List<String> errors) {
+        int lineCount = grid.lineCount();
+        while (lineCount > 0 && grid.lineLength(lineCount - 1) == 0)
+            lineCount--;
+        int size = (lineCount + 1) / 2;
+        if (size < 1 || size > MAX_SIZE || lineCount % 2 == 0)
+            errors.add("Not an odd lines count for a size from 1 to " + MAX_SIZE + " (found=" + lineCount + ")");
+        size = Math.min(size, MAX_SIZE);
+
+        int[] givens = new int[size * size];
+        Arrays.fill(givens, GridReader.EMPTY);
+        List<int[]> inequalities = new ArrayList<>();
+        for (int line = 0; line < Math.min(lineCount, 2 * size - 1); line++) {
+            int row = line / 2;
+            int length = grid.lineLength(line);
+            if (line % 2 == 0 && length != 2 * size - 1)
+                errors.add("Not the right characters count on the line #" + (line + 1) + " (found=" + length + ")");
+            for (int position = 0; position < Math.min(length, 2 * size - 1); position++) {
+                char symbol = grid.charAt(line, position);
+                int cell = row * size + position / 2;
+                if (line % 2 == 0 && position % 2 == 0) {
+                    if (symbol >= '1' && symbol <= '0' + size)
+                        givens[cell] = symbol - '0';
+                    else if (symbol != '_')
+                        errors.add("Not a digit from 1 to " + size + " nor '_' at line #" + (line + 1) + ", position #" + (position + 1) + " (found=" + symbol + ")");
+                } else if (line % 2 == 0 && symbol == '<')
+                    inequalities.add(new int[]{cell + 1, cell});
+                else if (line % 2 == 0 && symbol == '>')
+                    inequalities.add(new int[]{cell, cell + 1});
+                else if (line % 2 == 1 && position % 2 == 0 && symbol == '^')
+                    inequalities.add(new int[]{cell + size, cell});
+                else if (line % 2 == 1 && position % 2 == 0 && (symbol == 'v' || symbol == '#'))
+                    inequalities.add(new int[]{cell, cell + size});
+                else if (symbol != ' ')
+                    errors.add("Not an acceptable character at line #" + (line + 1) + ", position #" + (position + 1) + " (found=" + symbol + ")");
+            }
+        }
+
+        return new Layout(size, givens,
+                inequalities.stream().mapToInt(inequality -> inequality[0]).toArray(),
+                inequalities.stream().mapToInt(inequality -> inequality[1]).toArray());
+    }
+
+    /**
+     * The given digits neither repeat in a row or a column nor break an inequality
+     */
+    private static void checkGivens(Layout layout, List<String> errors) {
+        int size = layout.size;
+        for (int line = 0; line < size; line++) {
+            int rowFound = 0;
+            int columnFound = 0;
+            for (int i = 0; i < size; i++) {
+                int rowValue = layout.givens[line * size + i];
+                if (rowValue != GridReader.EMPTY && (rowFound & 1 << rowValue) != 0)
+                    errors.add("Same digit (" + rowValue + ") several times in the row #" + (line + 1));
+                if (rowValue != GridReader.EMPTY)
+                    rowFound |= 1 << rowValue;
+                int columnValue = layout.givens[i * size + line];
+                if (columnValue != GridReader.EMPTY && (columnFound & 1 << columnValue) != 0)
+                    errors.add("Same digit (" + columnValue + ") several times in the column #" + (line + 1));
+                if (columnValue != GridReader.EMPTY)
+                    columnFound |= 1 << columnValue;
+            }
+        }
+        for (int inequality = 0; inequality < layout.greater.length; inequality++) {
+            int greater = layout.givens[layout.greater[inequality]];
+            int smaller = layout.givens[layout.smaller[inequality]];
+            if (greater != GridReader.EMPTY && smaller != GridReader.EMPTY && greater <= smaller)
+                errors.add("Given digits breaking the inequality " + layout.inequalityName(inequality) + " (found=" + greater + " and " + smaller + ")");
+        }
+    }
+
+    private static void checkSolutions(Layout layout, List<String> errors) {
+        checkUniqueSolution(new BuzzSolver(layout).countSolutions(2), "this grid", errors);
+    }
+
+    static String cellName(int cell, int size) {
+        return "[" + (cell / size + 1) + "," + (cell % size + 1) + "]";
+    }
+
+    /**
+     * Each row and each column holds the digits from 1 to the size once
+     */
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        int size = values.length;
+        int all = (1 << size + 1) - 2;
+        for (int line = 0; line < size; line++) {
+            if (values[line].length != size) {
+                errors.add("Not a square grid (found=" + values[line].length + " digits in the row #" + (line + 1) + ")");
+                return;
+            }
+        }
+        for (int line = 0; line < size; line++) {
+            int rowFound = 0;
+            int columnFound = 0;
+            for (int i = 0; i < size; i++) {
+                rowFound |= 1 << values[line][i];
+                columnFound |= 1 << values[i][line];
+            }
+            if (rowFound != all)
+                errors.add("Not the digits from 1 to " + size + " in the row #" + (line + 1));
+            if (columnFound != all)
+                errors.add("Not the digits from 1 to " + size + " in the column #" + (line + 1));
+        }
+    }
+
+    protected List<String> compareData(Layout layout, Integer[][] results) {
+        List<String> errors = new ArrayList<>();
+        int size = layout.size;
+        if (results.length != size || Arrays.stream(results).anyMatch(row -> row.length != size)) {
+            errors.add("Not the size of the source grid");
+            return errors;
+        }
+        for (int cell = 0; cell < layout.givens.length; cell++) {
+            int found = results[cell / size][cell % size];
+            if (layout.givens[cell] != GridReader.EMPTY && found != layout.givens[cell])
+                errors.add("Given value not kept: " + cellName(cell, size) + " (found=" + found + " v. expected=" + layout.givens[cell] + ")");
+        }
+        for (int inequality = 0; inequality < layout.greater.length; inequality++) {
+            int greater = results[layout.greater[inequality] / size][layout.greater[inequality] % size];
+            int smaller = results[layout.smaller[inequality] / size][layout.smaller[inequality] % size];
+            if (greater <= smaller)
+                errors.add("Inequality not kept: " + layout.inequalityName(inequality) + " (found=" + greater + " and " + smaller + ")");
+        }
+        return errors;
+    }
+
+}
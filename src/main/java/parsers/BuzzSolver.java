@@ -0,0 +1,123 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of Buzz grids, counting solutions up to a limit. The candidates of each cell are a bit mask (bit = 1 << value).
+ * The propagation removes the solved values from the other cells of each row and column, places the values with
+ * a single possible cell, and keeps the greater cell of each inequality above the smallest candidate of the smaller one
+ * (and the smaller one below the largest candidate of the greater one), before branching on the cell with the fewest
+ * candidates.
+ * Run as a program, it solves the buzz/ sources and writes the missing results to _computed.txt files.
+ */
+final class BuzzSolver extends CandidatesSolver {
+
+    private final int size;
+    private final int[][] lines; // cells of each row, then of each column
+    private final int[] greater;
+    private final int[] smaller;
+    private final int[] initial;
+
+    /**
+     * @param layout compiled source file without errors
+     */
+    BuzzSolver(Buzz.Layout layout) {
+        this.size = layout.size;
+        this.lines = new int[2 * size][size];
+        for (int line = 0; line < size; line++) {
+            for (int i = 0; i < size; i++) {
+                lines[line][i] = line * size + i;
+                lines[size + line][i] = i * size + line;
+            }
+        }
+        this.greater = layout.greater;
+        this.smaller = layout.smaller;
+        int allValues = (1 << size + 1) - 2;
+        this.initial = Arrays.stream(layout.givens).map(given -> given == GridReader.EMPTY ? allValues : 1 << given).toArray();
+    }
+
+    public static void main(String[] args) {
+        String pathName = args.length > 0 ? args[0] : new Buzz().pathName();
+        ComputedFiles.solveAll(pathName, fileName -> {
+            CommonChecker.BiSupplier<List<String>, Buzz.Layout> source = Buzz.readFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            BuzzSolver solver = new BuzzSolver(source.getTwo());
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), solver.size);
+        });
+    }
+
+    protected int[] initialCandidates() {
+        return initial.clone();
+    }
+
+    /**
+     * Apply the rules of the rows and columns and the inequalities until nothing changes
+     * @return false when a contradiction is found
+     */
+    protected boolean propagate(int[] candidates) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int[] cells : lines) {
+                int solved = 0;
+                for (int cell : cells) {
+                    int bits = candidates[cell];
+                    if (Integer.bitCount(bits) == 1) {
+                        if ((solved & bits) != 0)
+                            return false;
+                        solved |= bits;
+                    }
+                }
+
+                int once = 0;
+                int several = 0;
+                for (int cell : cells) {
+                    int bits = candidates[cell];
+                    if (Integer.bitCount(bits) > 1 && (bits & solved) != 0) {
+                        bits &= ~solved;
+                        if (bits == 0)
+                            return false;
+                        candidates[cell] = bits;
+                        changed = true;
+                    }
+                    several |= once & bits;
+                    once |= bits;
+                }
+                if ((once | solved) != (1 << size + 1) - 2)
+                    return false;
+
+                int hidden = once & ~several & ~solved;
+                for (int cell : cells) {
+                    int bits = candidates[cell] & hidden;
+                    if (bits != 0 && bits != candidates[cell]) {
+                        if (Integer.bitCount(bits) > 1)
+                            return false;
+                        candidates[cell] = bits;
+                        changed = true;
+                    }
+                }
+            }
+
+            for (int inequality = 0; inequality < greater.length; inequality++) {
+                int greaterBits = candidates[greater[inequality]];
+                int smallerBits = candidates[smaller[inequality]];
+                // above the smallest candidate of the smaller cell, below the largest one of the greater cell
+                int newGreater = greaterBits & -(Integer.lowestOneBit(smallerBits) << 1);
+                int newSmaller = smallerBits & (Integer.highestOneBit(greaterBits) - 1);
+                if (newGreater == 0 || newSmaller == 0)
+                    return false;
+                if (newGreater != greaterBits || newSmaller != smallerBits) {
+                    candidates[greater[inequality]] = newGreater;
+                    candidates[smaller[inequality]] = newSmaller;
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,83 @@
+package parsers;
+
+import java.util.Arrays;
+
+/**
+ * Base of the solvers keeping the candidates of each cell in a bit mask (bit = 1 << value), counting solutions up to a limit:
+ * after the propagation of the subclass, the search branches on the cell with the fewest candidates (more than one).
+ */
+abstract class CandidatesSolver {
+
+    private int limit;
+    private int count;
+    private int[] solution;
+
+    /**
+     * @param limit the search stops once this number of solutions is found
+     * @return the number of solutions, at most limit
+     */
+    int countSolutions(int limit) {
+        this.limit = limit;
+        this.count = 0;
+        this.solution = null;
+        search(initialCandidates());
+        return count;
+    }
+
+    /**
+     * @return the values of the cells in the first solution found by {@link #countSolutions(int)}, null if there is none
+     */
+    int[] solution() {
+        return solution;
+    }
+
+    /**
+     * @return the candidates of each cell before any deduction, in a new array
+     */
+    protected abstract int[] initialCandidates();
+
+    /**
+     * Apply the rules until nothing changes
+     * @return false when a contradiction is found
+     */
+    protected abstract boolean propagate(int[] candidates);
+
+    /**
+     * @param candidates the single candidate of a cell in a solution
+     * @return the value of the cell
+     */
+    protected int value(int candidates) {
+        return Integer.numberOfTrailingZeros(candidates);
+    }
+
+    private void search(int[] candidates) {
+        if (!propagate(candidates))
+            return;
+
+        int bestCell = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < candidates.length; cell++) {
+            int candidatesCount = Integer.bitCount(candidates[cell]);
+            if (candidatesCount > 1 && candidatesCount < bestCount) {
+                bestCell = cell;
+                bestCount = candidatesCount;
+            }
+        }
+
+        if (bestCell < 0) {
+            if (count++ == 0)
+                solution = Arrays.stream(candidates).map(this::value).toArray();
+            return;
+        }
+
+        int remaining = candidates[bestCell];
+        while (remaining != 0 && count < limit) {
+            int bit = remaining & -remaining;
+            remaining &= remaining - 1;
+            int[] next = candidates.clone();
+            next[bestCell] = bit;
+            search(next);
+        }
+    }
+
+}
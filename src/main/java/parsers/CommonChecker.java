@@ -1,9 +1,21 @@
 package parsers;
 
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.*;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -28,10 +40,111 @@ class CommonChecker {
         };
     }
 
+    /**
+     * Parser of the content of a source file, adding to the errors the problems it finds
+     */
+    interface SourceParser<T> {
+        T parse(Reader reader, List<String> errors) throws IOException, ParseException;
+    }
+
+    /**
+     * Read a JSON source file: a file which cannot be read, is not JSON or misses an expected item
+     * (ClassCastException or NullPointerException from the parser) gives a fatal error
+     * @return composite: the list of errors found and the source data (null when the file cannot be read)
+     */
+    static <T> BiSupplier<List<String>, T> readJsonFile(String fileName, SourceParser<T> parser) {
+        List<String> errors = new ArrayList<>();
+
+        T data = null;
+
+        try (Reader reader = new BufferedReader(new FileReader(fileName))) {
+            data = parser.parse(reader, errors);
+        } catch (IOException | ParseException | ClassCastException | NullPointerException e) {
+            errors.add("FATAL ERROR with file: " + fileName + " => " + e);
+        }
+
+        return buildBiSupplier(errors, data);
+    }
+
+    /**
+     * A source must have exactly one solution
+     * @param solutions count of the solutions of the source (a solver may stop counting at 2)
+     * @param solved what was solved (e.g. "this grid") for the messages
+     */
+    static void checkUniqueSolution(int solutions, String solved, List<String> errors) {
+        if (solutions == 0)
+            errors.add("No solution for " + solved);
+        else if (solutions > 1)
+            errors.add("Several solutions for " + solved + (solutions > 2 ? " (found=" + solutions + ")" : ""));
+    }
+
     static <T, K, U, M extends Map<K, U>> Collector<T, ?, M> collectorToMap(Function<? super T, ? extends K> keyMapper, Function<? super T, ? extends U> valueMapper, Supplier<M> mapFactory) {
         return Collectors.toMap(keyMapper, valueMapper, (x, y) -> x, mapFactory);
     }
 
+    /**
+     * System property giving the number of threads used to check files:
+     * 1 (default) checks them one after another, 0 uses one thread per available processor
+     */
+    static final String THREADS_PROPERTY = "checker.threads";
+
+    static int configuredThreads() {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 1);
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Apply a check on each file, possibly in parallel, keeping the order of the given file names
+     * @param fileNames the files to check
+     * @param checker the check to apply on one file (must not rely on any shared mutable state)
+     * @param threads number of threads to use, 1 for a sequential run
+     * @return file name to check result, in the same order as the file names
+     */
+    static <V> Map<String, V> checkFiles(List<String> fileNames, Function<String, V> checker, int threads) {
+        if (threads <= 1 || fileNames.size() <= 1)
+            return fileNames.stream().collect(collectorToMap(Function.identity(), checker, LinkedHashMap::new));
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, fileNames.size()));
+        try {
+            List<Future<V>> futures = fileNames.stream()
+                    .map(fileName -> executor.submit(() -> checker.apply(fileName)))
+                    .collect(Collectors.toList());
+            Map<String, V> result = new LinkedHashMap<>();
+            for (int i = 0; i < fileNames.size(); i++)
+                result.put(fileNames.get(i), futures.get(i).get());
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Same as {@link #checkFiles(List, Function, int)}, but the files left unchanged since the previous run
+     * are not checked again: their problems are taken from the manifest (and their data is null)
+     */
+    static <D> Map<String, BiSupplier<List<String>, D>> checkFiles(List<String> fileNames, Function<String, BiSupplier<List<String>, D>> checker, int threads, Manifest manifest) {
+        Map<String, BiSupplier<List<String>, D>> checked = checkFiles(
+                fileNames.stream().filter(fileName -> !manifest.isReused(fileName)).collect(Collectors.toList()),
+                checker,
+                threads);
+
+        Map<String, BiSupplier<List<String>, D>> result = new LinkedHashMap<>();
+        fileNames.forEach(fileName -> {
+            BiSupplier<List<String>, D> data = checked.get(fileName);
+            if (data == null)
+                data = buildBiSupplier(manifest.problems(fileName), null);
+            else
+                manifest.recordProblems(fileName, data.getOne());
+            result.put(fileName, data);
+        });
+        return result;
+    }
+
     static void crossStreams(Supplier<IntStream> stream1, Supplier<IntStream> stream2, BiConsumer<Integer, Integer> biConsumer) {
         stream1.get().forEach(first -> stream2.get().forEach(second -> biConsumer.accept(first, second)));
     }
@@ -49,18 +162,35 @@ class CommonChecker {
                 );
     }
 
-    static <K, V1, V2> Map<Map.Entry<K, V1>, Optional<V2>> extractMappedData(Map<K, V1> srcMap, Map<K, V2> resMap, BiPredicate<K, K> matcher) {
+    /**
+     * Pair the entries of two maps sharing the same extracted key (e.g. the base name of a puzzle):
+     * the second map is indexed once, so the pairing is linear in the size of both maps
+     * @param srcMap entries to pair, in the order of the result
+     * @param srcKeyExtractor key of an entry of the first map
+     * @param resMap entries to pair with (the first one wins when several share a key)
+     * @param resKeyExtractor key of an entry of the second map
+     * @return each entry of the first map with its optional counterpart
+     */
+    static <K, V1, V2, I> Map<Map.Entry<K, V1>, Optional<V2>> extractMappedData(Map<K, V1> srcMap, Function<K, I> srcKeyExtractor, Map<K, V2> resMap, Function<K, I> resKeyExtractor) {
+        Map<I, V2> index = new HashMap<>(resMap.size() * 2);
+        resMap.forEach((key, value) -> index.putIfAbsent(resKeyExtractor.apply(key), value));
         return srcMap
                 .entrySet()
                 .stream()
                 .collect(
                         collectorToMap(
                                 Function.identity(),
-                                entry -> resMap.entrySet().stream().filter(e -> matcher.test(entry.getKey(), e.getKey())).findFirst().map(Map.Entry::getValue),
+                                entry -> Optional.ofNullable(index.get(srcKeyExtractor.apply(entry.getKey()))),
                                 LinkedHashMap::new)
                 );
     }
 
+    // -8 because _res.txt
+    // -4 because .txt
+    static String baseName(String fileName) {
+        return fileName.endsWith("_res.txt") ? subString(fileName, -8) : subString(fileName, -4);
+    }
+
     static String subString(String input, int dropFromTheEnd) {
         if(dropFromTheEnd > 0)
             throw new IllegalArgumentException("Second argument 'dropFromTheEnd' expects a negative value");
@@ -0,0 +1,157 @@
+package parsers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Results computed by the solvers, written next to their source file as _computed.txt files with the format
+ * of the result files (one row per line, one digit per cell): validate.bat renames them to _res.txt once checked.
+ */
+final class ComputedFiles {
+
+    static final String COMPUTED_SUFFIX = "_computed.txt";
+    static final String RESULT_SUFFIX = "_res.txt";
+    private static final Pattern RESULT_FILE = Pattern.compile(".*_res\\d*\\.txt"); // other solutions may be given as _res2.txt...
+    static final char BLOCKED = '#';
+
+    private ComputedFiles() {
+    }
+
+    /**
+     * What a solver found for a source file
+     */
+    static final class Solved {
+        final List<String> errors; // problems of the source file, the puzzle is not solved when not empty
+        final int solutions; // number of solutions, up to the limit of the solver (negative when the solver gave up)
+        final int[] cells; // first solution (row * width + column), null when there is none
+        final int width;
+        final String text; // first solution written in its own format, null for the digit grids
+
+        private Solved(List<String> errors, int solutions, int[] cells, int width, String text) {
+            this.errors = errors;
+            this.solutions = solutions;
+            this.cells = cells;
+            this.width = width;
+            this.text = text;
+        }
+
+        static Solved invalid(List<String> errors) {
+            return new Solved(errors, 0, null, 0, null);
+        }
+
+        static Solved of(int solutions, int[] cells, int width) {
+            return new Solved(List.of(), solutions, solutions > 0 ? cells : null, width, null);
+        }
+
+        /**
+         * @param text first solution, as its result file must contain it (compared line by line)
+         */
+        static Solved ofText(int solutions, String text) {
+            return new Solved(List.of(), solutions, null, 0, solutions > 0 ? text : null);
+        }
+    }
+
+    /**
+     * Solve every source file of a directory, printing the number of solutions and the time spent on each of them.
+     * A unique solution is compared to the existing result file, or written to a _computed.txt file when there is none.
+     * @param solver source file name to what the solver found (solutions counted up to 2 at least)
+     */
+    static void solveAll(String pathName, Function<String, Solved> solver) {
+        solveAll(pathName, ".txt", solver);
+    }
+
+    /**
+     * @param sourceExtension extension of the source files (.txt, .json...)
+     */
+    static void solveAll(String pathName, String sourceExtension, Function<String, Solved> solver) {
+        List<String> sourceFileNames = Arrays.stream(new File(pathName).listFiles())
+                .map(File::getPath)
+                .filter(fileName -> fileName.endsWith(sourceExtension) && !RESULT_FILE.matcher(fileName).matches() && !fileName.endsWith(COMPUTED_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+
+        long totalStart = System.nanoTime();
+        for (String sourceFileName : sourceFileNames) {
+            long start = System.nanoTime();
+            Solved solved = solver.apply(sourceFileName);
+            String time = " (" + String.format("%.1f", (System.nanoTime() - start) / 1e6) + " ms)";
+
+            if (!solved.errors.isEmpty())
+                System.out.println(sourceFileName + " --> invalid source: " + solved.errors + time);
+            else if (solved.solutions < 0)
+                System.out.println(sourceFileName + " --> undetermined" + time);
+            else if (solved.solutions == 0)
+                System.out.println(sourceFileName + " --> no solution" + time);
+            else if (solved.solutions > 1)
+                System.out.println(sourceFileName + " --> " + (solved.solutions > 2 ? solved.solutions : "several") + " solutions" + time);
+            else
+                System.out.println(sourceFileName + " --> 1 solution" + time + ", " + store(sourceFileName, sourceExtension, solved));
+        }
+        System.out.println(sourceFileNames.size() + " source files solved in " + (System.nanoTime() - totalStart) / 1_000_000 + " ms");
+    }
+
+    private static String store(String sourceFileName, String sourceExtension, Solved solved) {
+        String baseName = CommonChecker.subString(sourceFileName, -sourceExtension.length());
+        String resultFileName = baseName + RESULT_SUFFIX;
+        if (new File(resultFileName).exists()) {
+            boolean same;
+            if (solved.text != null)
+                same = Arrays.equals(lines(read(resultFileName)), lines(solved.text));
+            else {
+                GridReader result = GridReader.read(resultFileName);
+                int height = solved.cells.length / solved.width;
+                same = Arrays.equals(result.decode(solved.width, height, (row, column, description) -> {}), solved.cells);
+            }
+            return same ? "same as " + resultFileName : "DIFFERENT from " + resultFileName;
+        }
+        String computedFileName = baseName + COMPUTED_SUFFIX;
+        if (solved.text != null)
+            write(computedFileName, solved.text);
+        else
+            write(computedFileName, solved.cells, solved.width);
+        return "written to " + computedFileName;
+    }
+
+    /**
+     * @param cells row * width + column, digits or {@link GridReader#EMPTY} for a blocked cell (written as {@value #BLOCKED})
+     */
+    static void write(String fileName, int[] cells, int width) {
+        StringBuilder content = new StringBuilder();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cell > 0 && cell % width == 0)
+                content.append('\n');
+            content.append(cells[cell] == GridReader.EMPTY ? BLOCKED : (char) ('0' + cells[cell]));
+        }
+        write(fileName, content.toString());
+    }
+
+    static void write(String fileName, String content) {
+        try {
+            Files.write(Paths.get(fileName), content.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String read(String fileName) {
+        try {
+            return new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String[] lines(String text) {
+        return text.split("\r?\n|\r");
+    }
+
+}
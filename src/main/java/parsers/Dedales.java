@@ -0,0 +1,186 @@
+package parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dedales: each pair of equal digits of a square grid is linked by a path of adjacent cells, the paths filling
+ * the whole grid without crossing. A source is read like the Sudoku grids ('_' for an empty cell) with the size given
+ * by its rows count. A result file writes in each cell the digit of its path, the cells of a digit drawing
+ * a single line: every one of them touches two others, except the two ends.
+ */
+public class Dedales extends DifferentFormat<int[]> {
+
+    static final int[] ROW_STEPS = {0, 1, 0, -1};
+    static final int[] COLUMN_STEPS = {1, 0, -1, 0};
+
+    public Dedales() {
+        this("dedales/");
+    }
+
+    Dedales(String pathName) {
+        super(pathName);
+    }
+
+    public static void main(String[] args) {
+        new Dedales().run();
+    }
+
+    protected BiSupplier<List<String>, int[]> checkSourceFile(String fileName) {
+        BiSupplier<List<String>, int[]> source = readFile(fileName);
+        if (source.getOne().isEmpty())
+            checkSolutions(source.getTwo(), source.getOne());
+        return source;
+    }
+
+    /**
+     * Check the layout of a source file, without solving it: each digit from 1 to 9 found is the end of a path,
+     * it appears twice
+     * @return composite: the list of errors found and the flat grid (row * size + column, {@link GridReader#EMPTY}
+     * for an empty cell)
+     */
+    static BiSupplier<List<String>, int[]> readFile(String fileName) {
+        List<String> errors = new ArrayList<>();
+        GridReader grid = GridReader.read(fileName);
+        int size = grid.lineCount();
+        if (size == 0) {
+            errors.add("Empty grid");
+            return buildBiSupplier(errors, new int[0]);
+        }
+        int[] data = grid.decode(size, size, (row, column, description) ->
+                errors.add(description + (row >= 0 ? ": " + (column >= 0 ? cellName(row, column) : "row #" + (row + 1)) : "")));
+        if (!errors.isEmpty())
+            return buildBiSupplier(errors, data);
+
+        int[] counts = new int[10];
+        for (int cell = 0; cell < data.length; cell++) {
+            if (data[cell] == 0)
+                errors.add("Not a digit from 1 to 9: " + cellName(cell / size, cell % size));
+            else if (data[cell] != GridReader.EMPTY)
+                counts[data[cell]]++;
+        }
+        for (int digit = 1; digit < counts.length; digit++)
+            if (counts[digit] != 0 && counts[digit] != 2)
+                errors.add("Digit " + digit + " found " + counts[digit] + " times instead of the 2 ends of its path");
+        return buildBiSupplier(errors, data);
+    }
+
+    private static void checkSolutions(int[] data, List<String> errors) {
+        checkUniqueSolution(new DedalesSolver(data, sizeOf(data)).countSolutions(2), "this grid", errors);
+    }
+
+    static int sizeOf(int[] data) {
+        return (int) Math.sqrt(data.length);
+    }
+
+    static String cellName(int row, int column) {
+        return "[" + (row + 1) + "," + (column + 1) + "]";
+    }
+
+    /**
+     * @return the number of neighbours of a cell holding the same digit
+     */
+    private static int sameNeighbours(Integer[][] values, int row, int column) {
+        int count = 0;
+        for (int move = 0; move < ROW_STEPS.length; move++) {
+            int nextRow = row + ROW_STEPS[move];
+            int nextColumn = column + COLUMN_STEPS[move];
+            if (nextRow >= 0 && nextRow < values.length && nextColumn >= 0 && nextColumn < values[nextRow].length
+                    && values[nextRow][nextColumn].equals(values[row][column]))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * The cells of each digit draw a single line: two ends touching one cell of the digit, the others touching two,
+     * all of them connected
+     */
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        int size = values.length;
+        if (size == 0 || values[0].length != size) {
+            errors.add("Not a square grid");
+            return;
+        }
+
+        int[] ends = new int[10];
+        int[] cellsCount = new int[10];
+        int[] firstCell = new int[10];
+        for (int cell = size * size - 1; cell >= 0; cell--) {
+            int row = cell / size;
+            int column = cell % size;
+            int digit = values[row][column];
+            if (digit == 0) {
+                errors.add("Not a digit from 1 to 9: " + cellName(row, column));
+                continue;
+            }
+            int neighbours = sameNeighbours(values, row, column);
+            if (neighbours == 1)
+                ends[digit]++;
+            else if (neighbours != 2)
+                errors.add("Not on a line of " + digit + " (" + neighbours + " neighbours with the same digit): " + cellName(row, column));
+            cellsCount[digit]++;
+            firstCell[digit] = cell;
+        }
+
+        for (int digit = 1; digit < cellsCount.length; digit++) {
+            if (cellsCount[digit] == 0)
+                continue;
+            if (ends[digit] != 2)
+                errors.add("Not 2 ends for the line of " + digit + " (found=" + ends[digit] + ")");
+            else if (connected(values, firstCell[digit]) != cellsCount[digit])
+                errors.add("Not a single line for the digit " + digit);
+        }
+    }
+
+    /**
+     * @return the number of cells with the digit of this cell connected to it
+     */
+    private static int connected(Integer[][] values, int start) {
+        int size = values.length;
+        int digit = values[start / size][start % size];
+        boolean[] seen = new boolean[size * size];
+        int[] stack = new int[size * size];
+        int top = 0;
+        stack[top++] = start;
+        seen[start] = true;
+        int count = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            count++;
+            for (int move = 0; move < ROW_STEPS.length; move++) {
+                int row = cell / size + ROW_STEPS[move];
+                int column = cell % size + COLUMN_STEPS[move];
+                if (row >= 0 && row < size && column >= 0 && column < size && !seen[row * size + column] && values[row][column] == digit) {
+                    seen[row * size + column] = true;
+                    stack[top++] = row * size + column;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The digits of the source are kept, at the ends of their lines
+     */
+    protected List<String> compareData(int[] data, Integer[][] results) {
+        List<String> errors = new ArrayList<>();
+        int size = sizeOf(data);
+        if (results.length != size || results.length > 0 && results[0].length != size) {
+            errors.add("Not the size of the source grid");
+            return errors;
+        }
+        for (int cell = 0; cell < data.length; cell++) {
+            int row = cell / size;
+            int column = cell % size;
+            if (data[cell] == GridReader.EMPTY)
+                continue;
+            if (results[row][column] != data[cell])
+                errors.add("Given value not kept: " + cellName(row, column) + " (found=" + results[row][column] + " v. expected=" + data[cell] + ")");
+            else if (sameNeighbours(results, row, column) != 1)
+                errors.add("Given value not at the end of its line: " + cellName(row, column));
+        }
+        return errors;
+    }
+
+}
@@ -0,0 +1,162 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of Dedales grids, counting solutions up to a limit. The cells are filled in reading order: when a cell is
+ * filled, the cell above it has all its neighbours, so it must touch exactly as many cells of its digit as it needs
+ * (1 for an end, 2 otherwise). The candidates of a cell are a bit mask (bit = 1 << digit) built from its upper
+ * and left neighbours: the digit of a neighbour still needing a cell of its line is forced, the digit of a complete
+ * one is excluded. A complete grid is kept when the cells of each digit are connected.
+ * Run as a program, it solves the dedales/ sources and writes the missing results to _computed.txt files.
+ */
+final class DedalesSolver {
+
+    private final int size;
+    private final int[] givens;
+    private final int digits; // digits of the grid (bit = 1 << digit)
+
+    // during the search: digit of the filled cells, number of neighbours with the same digit, and neighbours needed
+    private final int[] values;
+    private final int[] degrees;
+    private final int[] needed;
+
+    private int limit;
+    private int count;
+    private int[] solution;
+
+    /**
+     * @param givens source grid without errors (row * size + column, {@link GridReader#EMPTY} for an empty cell)
+     */
+    DedalesSolver(int[] givens, int size) {
+        this.size = size;
+        this.givens = givens;
+        this.digits = Arrays.stream(givens).filter(given -> given != GridReader.EMPTY).reduce(0, (bits, given) -> bits | 1 << given);
+        this.values = new int[givens.length];
+        this.degrees = new int[givens.length];
+        this.needed = Arrays.stream(givens).map(given -> given == GridReader.EMPTY ? 2 : 1).toArray();
+    }
+
+    public static void main(String[] args) {
+        String pathName = args.length > 0 ? args[0] : new Dedales().pathName();
+        ComputedFiles.solveAll(pathName, fileName -> {
+            CommonChecker.BiSupplier<List<String>, int[]> source = Dedales.readFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            int size = Dedales.sizeOf(source.getTwo());
+            DedalesSolver solver = new DedalesSolver(source.getTwo(), size);
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), size);
+        });
+    }
+
+    /**
+     * @param limit the search stops once this number of solutions is found
+     * @return the number of solutions, at most limit
+     */
+    int countSolutions(int limit) {
+        this.limit = limit;
+        this.count = 0;
+        this.solution = null;
+        Arrays.fill(degrees, 0);
+        if (digits != 0)
+            search(0);
+        return count;
+    }
+
+    /**
+     * @return the first solution found by {@link #countSolutions(int)} (row * size + column), null if there is none
+     */
+    int[] solution() {
+        return solution;
+    }
+
+    private void search(int cell) {
+        if (cell == values.length) {
+            if (degrees[cell - 1] == needed[cell - 1] && connected() && count++ == 0)
+                solution = values.clone();
+            return;
+        }
+
+        int row = cell / size;
+        int column = cell % size;
+        int up = row > 0 ? cell - size : -1;
+        int left = column > 0 ? cell - 1 : -1;
+        int candidates = givens[cell] != GridReader.EMPTY ? 1 << givens[cell] : digits;
+        // the cell above gets its last neighbour, the cell on the left only misses the one below it
+        if (up >= 0)
+            candidates &= restriction(up, 0);
+        if (left >= 0)
+            candidates &= restriction(left, row < size - 1 ? 1 : 0);
+
+        for (int bits = candidates; bits != 0 && count < limit; bits &= bits - 1) {
+            int digit = Integer.numberOfTrailingZeros(bits);
+            values[cell] = digit;
+            int same = (up >= 0 && values[up] == digit ? 1 : 0) + (left >= 0 && values[left] == digit ? 1 : 0);
+            if (same > needed[cell])
+                continue;
+            link(cell, up, left, digit, 1);
+            search(cell + 1);
+            link(cell, up, left, digit, -1);
+        }
+    }
+
+    /**
+     * @param remaining neighbours of the cell still to fill, after the current one
+     * @return the digits the current cell may hold next to this filled cell
+     */
+    private int restriction(int neighbour, int remaining) {
+        int missing = needed[neighbour] - degrees[neighbour];
+        int bit = 1 << values[neighbour];
+        if (missing <= 0)
+            return ~bit; // complete
+        if (missing > remaining + 1)
+            return 0;
+        if (missing > remaining)
+            return bit; // the current cell is needed
+        return ~0;
+    }
+
+    private void link(int cell, int up, int left, int digit, int step) {
+        if (up >= 0 && values[up] == digit) {
+            degrees[up] += step;
+            degrees[cell] += step;
+        }
+        if (left >= 0 && values[left] == digit) {
+            degrees[left] += step;
+            degrees[cell] += step;
+        }
+    }
+
+    /**
+     * @return true when the cells of each digit form a single group (the degrees make it a line and no loop)
+     */
+    private boolean connected() {
+        boolean[] seen = new boolean[values.length];
+        int[] stack = new int[values.length];
+        int groups = 0;
+        for (int start = 0; start < values.length; start++) {
+            if (seen[start])
+                continue;
+            groups++;
+            int top = 0;
+            stack[top++] = start;
+            seen[start] = true;
+            while (top > 0) {
+                int cell = stack[--top];
+                for (int move = 0; move < Dedales.ROW_STEPS.length; move++) {
+                    int row = cell / size + Dedales.ROW_STEPS[move];
+                    int column = cell % size + Dedales.COLUMN_STEPS[move];
+                    int next = row * size + column;
+                    if (row >= 0 && row < size && column >= 0 && column < size && !seen[next] && values[next] == values[cell]) {
+                        seen[next] = true;
+                        stack[top++] = next;
+                    }
+                }
+            }
+        }
+        return groups == Integer.bitCount(digits);
+    }
+
+}
@@ -1,12 +1,11 @@
 package parsers;
 
-import java.io.*;
+import java.io.File;
 import java.util.*;
-import java.util.function.BiPredicate;
 import java.util.function.Function;
-import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 
-public abstract class DifferentFormat<Source> extends CommonChecker implements Runnable {
+public abstract class DifferentFormat<Source> extends CommonChecker implements Runnable, PuzzleChecker {
 
     private final String pathName;
 
@@ -14,61 +13,106 @@ public abstract class DifferentFormat<Source> extends CommonChecker implements R
         this.pathName = pathName;
     }
 
+    public String pathName() {
+        return pathName;
+    }
+
     public void run() {
-        Map<String, BiSupplier<List<String>, Source>> fileNameToData = Arrays.stream(new File(pathName).listFiles())
-                .map(File::getPath)
-                .filter(fileName -> !fileName.endsWith("_res.txt") && !fileName.endsWith("_computed.txt"))
-                .collect(collectorToMap(Function.identity(), this::checkSourceFile, LinkedHashMap::new));
+        check(Report.console());
+    }
 
-        Map<String, BiSupplier<List<String>, Integer[][]>> fileNameToDataRes = Arrays.stream(new File(pathName).listFiles())
+    public void check(Report report) {
+        List<String> fileNames = Arrays.stream(new File(pathName).listFiles())
                 .map(File::getPath)
+                .collect(Collectors.toList());
+        int threads = configuredThreads();
+
+        List<String> sourceFileNames = fileNames.stream()
+                .filter(fileName -> !fileName.endsWith("_res.txt") && !fileName.endsWith("_computed.txt"))
+                .collect(Collectors.toList());
+        List<String> resultFileNames = fileNames.stream()
                 .filter(fileName -> fileName.endsWith("_res.txt"))
-                .collect(collectorToMap(Function.identity(), this::checkResultFile, LinkedHashMap::new));
+                .collect(Collectors.toList());
+
+        Manifest manifest = Manifest.load(pathName, getClass(), dependencies());
+        List<String> checkedFileNames = new ArrayList<>(sourceFileNames);
+        checkedFileNames.addAll(resultFileNames);
+        manifest.filesToCheck(checkedFileNames, fileName ->
+                fileName.endsWith("_res.txt") ? resultBaseName().apply(fileName) : sourceBaseName().apply(fileName));
+
+        Map<String, BiSupplier<List<String>, Source>> fileNameToData = checkFiles(sourceFileNames, this::checkSourceFile, threads, manifest);
 
-        System.out.println("\n### Consistency checks ###\n");
+        Map<String, BiSupplier<List<String>, Integer[][]>> fileNameToDataRes = checkFiles(resultFileNames, this::checkResultFile, threads, manifest);
+
+        report.info("\n### Consistency checks ###\n");
 
         fileNameToData.forEach((fileName, data) -> {
+            List<String> notes;
+            if (manifest.isReused(fileName))
+                notes = manifest.notes(fileName);
+            else {
+                notes = data.getTwo() == null ? Collections.emptyList() : notes(data.getTwo());
+                manifest.recordNotes(fileName, notes);
+            }
             if (!data.getOne().isEmpty()) {
-                System.err.println(fileName);
-                data.getOne().forEach(problem -> System.err.println("\t" + problem));
+                report.error(fileName);
+                data.getOne().forEach(problem -> report.error("\t" + problem));
             } else
-                System.out.println(fileName + " --> OK");
+                report.info(fileName + " --> OK");
+            notes.forEach(note -> report.info("\t" + note));
         });
 
         Map<Map.Entry<String, BiSupplier<List<String>, Source>>, Optional<BiSupplier<List<String>, Integer[][]>>> srcToRes =
                 extractMappedData(
                         fileNameToData,
+                        sourceBaseName(),
                         fileNameToDataRes,
-                        matcherSrcToRes()
+                        resultBaseName()
                 );
 
         Map<Map.Entry<String, BiSupplier<List<String>, Integer[][]>>, Optional<BiSupplier<List<String>, Source>>> resToSrc =
                 extractMappedData(
                         fileNameToDataRes,
+                        resultBaseName(),
                         fileNameToData,
-                        matcherResToSrc()
+                        sourceBaseName()
                 );
 
-        System.out.println("\n### Cross-files consistency checks ###\n");
+        report.info("\n### Cross-files consistency checks ###\n");
 
         srcToRes.forEach((entryDataForSourceFile, optionalMatchedDataForResultFile) ->
                 optionalMatchedDataForResultFile.ifPresentOrElse(matchedDataForResultFile -> {
-                    List<String> errorsFound = compareData(entryDataForSourceFile.getValue().getTwo(), matchedDataForResultFile.getTwo());
+                    String sourceFileName = entryDataForSourceFile.getKey();
+                    List<String> errorsFound;
+                    if (manifest.isReused(sourceFileName))
+                        errorsFound = manifest.crossIssues(sourceFileName);
+                    else {
+                        errorsFound = compareData(entryDataForSourceFile.getValue().getTwo(), matchedDataForResultFile.getTwo());
+                        manifest.recordCrossIssues(sourceFileName, errorsFound);
+                    }
                     if (!errorsFound.isEmpty()) {
-                        System.err.println("Issues found when comparing source and result files: " + entryDataForSourceFile.getKey());
-                        errorsFound.forEach(problem -> System.err.println("\t" + problem));
+                        report.error("Issues found when comparing source and result files: " + entryDataForSourceFile.getKey());
+                        errorsFound.forEach(problem -> report.error("\t" + problem));
                     }
                 }, () -> {
-                    System.err.println("No result file for source file: " + entryDataForSourceFile.getKey());
+                    report.error("No result file for source file: " + entryDataForSourceFile.getKey());
                 })
         );
 
-        System.out.println("\n### Gap information ###\n");
+        report.info("\n### Gap information ###\n");
         resToSrc.entrySet().stream().filter(e -> !e.getValue().isPresent()).forEach(entryDataForResultFile ->
-                System.out.println("No source file for result: " + entryDataForResultFile.getKey().getKey())
+                report.info("No source file for result: " + entryDataForResultFile.getKey().getKey())
         );
+
+        manifest.save();
     }
 
+    /**
+     * Check errors in source files and return the corresponding data
+     * (called concurrently on several files when {@value #THREADS_PROPERTY} is greater than 1)
+     * @param fileName input file name
+     * @return composite: the list of errors found and the source data
+     */
     protected abstract BiSupplier<List<String>, Source> checkSourceFile(String fileName);
 
     /**
@@ -76,55 +120,69 @@ public abstract class DifferentFormat<Source> extends CommonChecker implements R
      * @param fileName input file name
      * @return composite: the list of errors found and the matrix data
      */
-    private BiSupplier<List<String>, Integer[][]> checkResultFile(String fileName) {
+    BiSupplier<List<String>, Integer[][]> checkResultFile(String fileName) {
         List<String> errors = new ArrayList<>();
-        List<String> lines = new ArrayList<>();
-        String lineRead = null;
-        try {
-            FileInputStream stream = new FileInputStream(fileName);
-            InputStreamReader isr = new InputStreamReader(stream);
-            BufferedReader reader = new BufferedReader(isr);
-            while ((lineRead = reader.readLine()) != null) {
-                lines.add(lineRead);
-            }
+        GridReader grid = GridReader.read(fileName);
 
-            reader.close();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.out.println("Line : " + lineRead);
+        int minLength = Integer.MAX_VALUE;
+        int maxLength = Integer.MIN_VALUE;
+        for (int line = 0; line < grid.lineCount(); line++) {
+            minLength = Math.min(minLength, grid.lineLength(line));
+            maxLength = Math.max(maxLength, grid.lineLength(line));
         }
+        if (minLength != maxLength && grid.lineCount() > 0)
+            errors.add("Not all the rows have the same length: min=" + minLength + ", max=" + maxLength);
 
-        IntSummaryStatistics statistics = lines.stream().mapToInt(String::length).summaryStatistics();
-        if (statistics.getMin() != statistics.getMax())
-            errors.add("Not all the rows have the same length: min=" + statistics.getMin() + ", max=" + statistics.getMax());
-
+        int width = grid.lineCount() > 0 ? minLength : 0;
+        Integer[][] values = new Integer[grid.lineCount()][width];
+        for (int row = 0; row < grid.lineCount(); row++)
+            for (int col = 0; col < width; col++)
+                values[row][col] = cellValue(grid, row, col);
 
-        Integer[][] values = new Integer[lines.size()][statistics.getMin()];
-        crossStreams(
-                () -> IntStream.range(0, lines.size()),
-                () -> IntStream.range(0, statistics.getMin()),
-                (row, col) -> values[row][col] = Integer.valueOf(String.valueOf(lines.get(row).charAt(col)))
-        );
-
-        extraChecksOnResults(lines, values, errors);
+        extraChecksOnResults(values, errors);
 
         return buildBiSupplier(errors, values);
     }
 
-    protected abstract void extraChecksOnResults(List<String> lines, Integer[][] values, List<String> errors);
+    /**
+     * @return the value of a cell of a result file, a digit by default
+     * @throws NumberFormatException when the cell is not valid
+     */
+    protected int cellValue(GridReader grid, int row, int column) {
+        return grid.digitAt(row, column);
+    }
 
-    // -4 because .txt
-    // -8 because _res.txt
-    protected BiPredicate<String, String> matcherSrcToRes() {
-        return (src, res) -> subString(src, -4).equals(subString(res, -8));
+    protected abstract void extraChecksOnResults(Integer[][] values, List<String> errors);
+
+    /**
+     * Base name shared by a source file and its result file, used to pair them
+     * @return source file name to base name (-4 because .txt)
+     */
+    protected Function<String, String> sourceBaseName() {
+        return src -> subString(src, -4);
     }
 
-    protected BiPredicate<String, String> matcherResToSrc() {
-        return (res, src) -> subString(res, -8).equals(subString(src, -4));
+    /**
+     * @return result file name to base name (-8 because _res.txt)
+     */
+    protected Function<String, String> resultBaseName() {
+        return res -> subString(res, -8);
     }
 
     protected abstract List<String> compareData(Source source, Integer[][] results);
 
+    /**
+     * @return information lines on a source read by {@link #checkSourceFile(String)}, reported but not counted as problems
+     */
+    protected List<String> notes(Source source) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return files out of the directory read by the checker (e.g. its properties), which make the manifest obsolete when they change
+     */
+    protected List<String> dependencies() {
+        return Collections.emptyList();
+    }
+
 }
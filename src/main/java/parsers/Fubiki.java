@@ -0,0 +1,189 @@
+package parsers;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fubiki: the digits from 1 to 9 placed once each in a 3x3 grid, giving the sums of the rows and of the columns.
+ * A source is a JSON file ({"grid": [[8,0,0],...], "sums": {"rows": [...], "columns": [...]}}, 0 for an empty cell).
+ */
+public class Fubiki extends DifferentFormat<Fubiki.Grid> {
+
+    static final int SIZE = 3;
+    static final int MAX_DIGIT = SIZE * SIZE;
+
+    private static final String GRID = "grid";
+    private static final String SUMS = "sums";
+    private static final String ROWS = "rows";
+    private static final String COLUMNS = "columns";
+
+    public Fubiki() {
+        this("fubiki/");
+    }
+
+    Fubiki(String pathName) {
+        super(pathName);
+    }
+
+    public static void main(String[] args) {
+        new Fubiki().run();
+    }
+
+    /**
+     * Content of a source file
+     */
+    static final class Grid {
+        final int[] givens; // row * SIZE + column, GridReader.EMPTY for an empty cell
+        final int[] rowSums;
+        final int[] columnSums;
+
+        private Grid(int[] givens, int[] rowSums, int[] columnSums) {
+            this.givens = givens;
+            this.rowSums = rowSums;
+            this.columnSums = columnSums;
+        }
+    }
+
+    protected BiSupplier<List<String>, Grid> checkSourceFile(String fileName) {
+        BiSupplier<List<String>, Grid> source = readFile(fileName);
+        if (source.getOne().isEmpty())
+            checkSolutions(source.getTwo(), source.getOne());
+        return source;
+    }
+
+    /**
+     * Check the content of a source file, without solving it
+     * @return composite: the list of errors found and the source data (null when the file cannot be read)
+     */
+    static BiSupplier<List<String>, Grid> readFile(String fileName) {
+        return readJsonFile(fileName, Fubiki::read);
+    }
+
+    /**
+     * @throws ClassCastException or NullPointerException when an expected item is missing or not of the right type
+     */
+    private static Grid read(Reader reader, List<String> errors) throws IOException, ParseException {
+        JSONObject json = (JSONObject) new JSONParser().parse(reader);
+        JSONArray rows = (JSONArray) json.get(GRID);
+        JSONObject sums = (JSONObject) json.get(SUMS);
+
+        int[] givens = new int[SIZE * SIZE];
+        Arrays.fill(givens, GridReader.EMPTY);
+        if (rows.size() != SIZE)
+            errors.add("Bad JSON content: must contain " + SIZE + " rows (got " + rows.size() + ")");
+        for (int row = 0; row < Math.min(rows.size(), SIZE); row++) {
+            int[] values = toInts((JSONArray) rows.get(row));
+            if (values.length != SIZE)
+                errors.add("Bad JSON content: must contain " + SIZE + " values in the row #" + (row + 1) + " (got " + values.length + ")");
+            for (int column = 0; column < Math.min(values.length, SIZE); column++)
+                givens[row * SIZE + column] = values[column] == 0 ? GridReader.EMPTY : values[column];
+        }
+
+        int found = 0;
+        for (int cell = 0; cell < givens.length; cell++) {
+            int value = givens[cell];
+            if (value == GridReader.EMPTY)
+                continue;
+            if (value < 1 || value > MAX_DIGIT)
+                errors.add("Not a digit from 1 to " + MAX_DIGIT + " (found=" + value + "): " + cellName(cell));
+            else if ((found & 1 << value) != 0)
+                errors.add("Same digit (" + value + ") given several times: " + cellName(cell));
+            else
+                found |= 1 << value;
+        }
+
+        int[] rowSums = toInts((JSONArray) sums.get(ROWS));
+        int[] columnSums = toInts((JSONArray) sums.get(COLUMNS));
+        checkSums(rowSums, "row", errors);
+        checkSums(columnSums, "column", errors);
+
+        return new Grid(givens, rowSums, columnSums);
+    }
+
+    private static int[] toInts(JSONArray array) {
+        int[] values = new int[array.size()];
+        int index = 0;
+        for (Object value : array)
+            values[index++] = ((Long) value).intValue();
+        return values;
+    }
+
+    /**
+     * The sums of all the rows (or all the columns) add up to 1 + 2 + ... + 9
+     */
+    private static void checkSums(int[] sums, String name, List<String> errors) {
+        if (sums.length != SIZE) {
+            errors.add("Bad JSON content: must contain " + SIZE + " " + name + " sums (got " + sums.length + ")");
+            return;
+        }
+        int total = Arrays.stream(sums).sum();
+        if (total != MAX_DIGIT * (MAX_DIGIT + 1) / 2)
+            errors.add("Bad global sum for the " + name + "s: " + total + " (expected=" + MAX_DIGIT * (MAX_DIGIT + 1) / 2 + ")");
+    }
+
+    // all the solutions are counted for the report
+    private static void checkSolutions(Grid grid, List<String> errors) {
+        checkUniqueSolution(new FubikiSolver(grid).countSolutions(Integer.MAX_VALUE), "these constraints", errors);
+    }
+
+    private static String cellName(int cell) {
+        return "[" + (cell / SIZE + 1) + "," + (cell % SIZE + 1) + "]";
+    }
+
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        if (values.length != SIZE || Arrays.stream(values).anyMatch(row -> row.length != SIZE)) {
+            errors.add("Not a " + SIZE + "x" + SIZE + " grid");
+            return;
+        }
+        int found = 0;
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            int value = values[cell / SIZE][cell % SIZE];
+            if (value < 1)
+                errors.add("Not a digit from 1 to " + MAX_DIGIT + " (found=" + value + "): " + cellName(cell));
+            else if ((found & 1 << value) != 0)
+                errors.add("Same digit (" + value + ") several times: " + cellName(cell));
+            found |= 1 << value;
+        }
+    }
+
+    // -5 because .json
+    protected Function<String, String> sourceBaseName() {
+        return src -> subString(src, -5);
+    }
+
+    protected List<String> compareData(Grid grid, Integer[][] results) {
+        List<String> errors = new ArrayList<>();
+        if (results.length != SIZE || Arrays.stream(results).anyMatch(row -> row.length != SIZE)) {
+            errors.add("Not the size of the source grid");
+            return errors;
+        }
+        for (int line = 0; line < SIZE; line++) {
+            int rowSum = 0;
+            int columnSum = 0;
+            for (int i = 0; i < SIZE; i++) {
+                rowSum += results[line][i];
+                columnSum += results[i][line];
+            }
+            if (rowSum != grid.rowSums[line])
+                errors.add("Invalid sum computed in row #" + (line + 1) + " (found=" + rowSum + " v. expected=" + grid.rowSums[line] + ")");
+            if (columnSum != grid.columnSums[line])
+                errors.add("Invalid sum computed in column #" + (line + 1) + " (found=" + columnSum + " v. expected=" + grid.columnSums[line] + ")");
+        }
+        for (int cell = 0; cell < grid.givens.length; cell++) {
+            int found = results[cell / SIZE][cell % SIZE];
+            if (grid.givens[cell] != GridReader.EMPTY && found != grid.givens[cell])
+                errors.add("Given value not kept: " + cellName(cell) + " (found=" + found + " v. expected=" + grid.givens[cell] + ")");
+        }
+        return errors;
+    }
+
+}
@@ -0,0 +1,140 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Solver of Fubiki grids, counting solutions up to a limit. The empty cells are filled in order with the digits
+ * still available (bit = 1 << digit, the given digits excluded): a digit is kept only when the remaining sum of its row
+ * and of its column still lies between the sums of the smallest and of the largest available digits
+ * for the empty cells left in the line, which cuts most of the 9! orderings.
+ * Run as a program, it solves the fubiki/ sources, printing the number of solutions of each of them,
+ * and writes the missing results to _computed.txt files.
+ */
+final class FubikiSolver {
+
+    private static final int SIZE = Fubiki.SIZE;
+    private static final int ALL_DIGITS = (1 << Fubiki.MAX_DIGIT + 1) - 2; // 1..9
+
+    private final int[] sums; // rows then columns
+    private final int[] initialValues;
+    private final int[] emptyCells;
+    private final int initialAvailable;
+
+    // during the search: sum of the known values and count of the empty cells of each line (rows then columns)
+    private final int[] known = new int[2 * SIZE];
+    private final int[] empty = new int[2 * SIZE];
+    private int[] values;
+
+    private int limit;
+    private int count;
+    private int[] solution;
+
+    /**
+     * @param grid content of a source file without errors
+     */
+    FubikiSolver(Fubiki.Grid grid) {
+        this.sums = IntStream.concat(Arrays.stream(grid.rowSums), Arrays.stream(grid.columnSums)).toArray();
+        this.initialValues = grid.givens.clone();
+        this.emptyCells = IntStream.range(0, grid.givens.length).filter(cell -> grid.givens[cell] == GridReader.EMPTY).toArray();
+        this.initialAvailable = Arrays.stream(grid.givens).filter(given -> given != GridReader.EMPTY)
+                .reduce(ALL_DIGITS, (available, given) -> available & ~(1 << given));
+    }
+
+    public static void main(String[] args) {
+        String pathName = args.length > 0 ? args[0] : new Fubiki().pathName();
+        ComputedFiles.solveAll(pathName, ".json", fileName -> {
+            CommonChecker.BiSupplier<List<String>, Fubiki.Grid> source = Fubiki.readFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            FubikiSolver solver = new FubikiSolver(source.getTwo());
+            int solutions = solver.countSolutions(Integer.MAX_VALUE);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), SIZE);
+        });
+    }
+
+    /**
+     * @param limit the search stops once this number of solutions is found
+     * @return the number of solutions, at most limit
+     */
+    int countSolutions(int limit) {
+        this.limit = limit;
+        this.count = 0;
+        this.solution = null;
+        this.values = initialValues.clone();
+        Arrays.fill(known, 0);
+        Arrays.fill(empty, 0);
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] == GridReader.EMPTY) {
+                empty[cell / SIZE]++;
+                empty[SIZE + cell % SIZE]++;
+            } else {
+                known[cell / SIZE] += values[cell];
+                known[SIZE + cell % SIZE] += values[cell];
+            }
+        }
+        if (IntStream.range(0, 2 * SIZE).allMatch(line -> fits(line, initialAvailable)))
+            search(0, initialAvailable);
+        return count;
+    }
+
+    /**
+     * @return the first solution found by {@link #countSolutions(int)} (row * 3 + column), null if there is none
+     */
+    int[] solution() {
+        return solution;
+    }
+
+    private void search(int index, int available) {
+        if (index == emptyCells.length) {
+            if (count++ == 0)
+                solution = values.clone();
+            return;
+        }
+
+        int cell = emptyCells[index];
+        int row = cell / SIZE;
+        int column = SIZE + cell % SIZE;
+        for (int remaining = available; remaining != 0 && count < limit; remaining &= remaining - 1) {
+            int digit = Integer.numberOfTrailingZeros(remaining);
+            int next = available & ~(1 << digit);
+            place(cell, row, column, digit, 1);
+            if (fits(row, next) && fits(column, next))
+                search(index + 1, next);
+            place(cell, row, column, digit, -1);
+        }
+        values[cell] = GridReader.EMPTY;
+    }
+
+    private void place(int cell, int row, int column, int digit, int sign) {
+        values[cell] = digit;
+        known[row] += sign * digit;
+        known[column] += sign * digit;
+        empty[row] -= sign;
+        empty[column] -= sign;
+    }
+
+    /**
+     * @return true when the sum missing in the line can be made with as many available digits as its empty cells
+     */
+    private boolean fits(int line, int available) {
+        int missing = sums[line] - known[line];
+        int cells = empty[line];
+        int smallest = 0;
+        int largest = 0;
+        int low = available;
+        int high = available;
+        for (int i = 0; i < cells; i++) {
+            if (low == 0)
+                return false;
+            smallest += Integer.numberOfTrailingZeros(low);
+            low &= low - 1;
+            int highest = 31 - Integer.numberOfLeadingZeros(high);
+            largest += highest;
+            high &= ~(1 << highest);
+        }
+        return smallest <= missing && missing <= largest;
+    }
+
+}
@@ -0,0 +1,373 @@
+package parsers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Garam puzzles, drawn as ASCII text: "_-_=_" on the rows, the same vertically on the columns, '_' for an empty cell.
+ * The layout is parsed once into equations over cell indices (a op b = result, the result having one or two digits
+ * which may start with 0), evaluated on the digits of the cells. A source may have several result files (_res.txt, _res2.txt...).
+ */
+public class Garam extends CommonChecker implements PuzzleChecker {
+
+    private static final Pattern RESULT_FILE = Pattern.compile(".*_res\\d*\\.txt");
+
+    public static void main(String[] args) {
+        new Garam().check(Report.console());
+    }
+
+    public String pathName() {
+        return "garam/";
+    }
+
+    public void check(Report report) {
+        List<String> fileNames = Arrays.stream(new File(pathName()).listFiles())
+                .map(File::getPath)
+                .filter(fileName -> !fileName.endsWith(ComputedFiles.COMPUTED_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+
+        Manifest manifest = Manifest.load(pathName(), getClass());
+        manifest.filesToCheck(fileNames, Garam::garamBaseName);
+
+        Map<String, BiSupplier<List<String>, Layout>> fileNameToData = checkFiles(fileNames, Garam::checkFileForReport, configuredThreads(), manifest);
+
+        report.info("\n### Consistency checks ###\n");
+
+        fileNameToData.forEach((fileName, data) -> {
+            if (!data.getOne().isEmpty()) {
+                report.info(fileName);
+                data.getOne().forEach(problem -> report.error("\t" + problem));
+            } else
+                report.info(fileName + " --> OK");
+        });
+
+        Map<Map.Entry<String, BiSupplier<List<String>, Layout>>, Optional<BiSupplier<List<String>, Layout>>> resToSrc =
+                extractMappedData(
+                        fileNameToData,
+                        fileName -> RESULT_FILE.matcher(fileName).matches(),
+                        fileName -> garamBaseName(fileName) + ".txt"
+                );
+
+        report.info("\n### Cross-files consistency checks ###\n");
+
+        resToSrc.forEach((entryDataForResultFile, optionalMatchedDataForSourceFile) ->
+                optionalMatchedDataForSourceFile.ifPresentOrElse(matchedDataForSourceFile -> {
+                    String resultFileName = entryDataForResultFile.getKey();
+                    List<String> differences;
+                    if (manifest.isReused(resultFileName))
+                        differences = manifest.crossIssues(resultFileName);
+                    else {
+                        Layout source = matchedDataForSourceFile.getTwo();
+                        Layout result = entryDataForResultFile.getValue().getTwo();
+                        differences = source == null || result == null ? Collections.emptyList() : compareData(result, source);
+                        manifest.recordCrossIssues(resultFileName, differences);
+                    }
+                    if (!differences.isEmpty()) {
+                        report.error("Differences on provided inputs for: " + resultFileName);
+                        differences.forEach(difference -> report.error("\t" + difference));
+                    }
+                }, () -> {
+                    report.error("No source file for result file: " + entryDataForResultFile.getKey());
+                })
+        );
+
+        report.info("\n### Gap information ###\n");
+        Set<String> baseNamesWithResult = fileNameToData.keySet().stream()
+                .filter(fileName -> RESULT_FILE.matcher(fileName).matches())
+                .map(Garam::garamBaseName)
+                .collect(Collectors.toSet());
+        fileNameToData.keySet().stream()
+                .filter(fileName -> !RESULT_FILE.matcher(fileName).matches() && !baseNamesWithResult.contains(garamBaseName(fileName)))
+                .forEach(fileName -> report.info("No result file for source: " + fileName));
+
+        manifest.save();
+    }
+
+    /**
+     * @return the file name without .txt, nor _res.txt, _res2.txt...
+     */
+    private static String garamBaseName(String fileName) {
+        return fileName.replaceFirst("(_res\\d*)?\\.txt$", "");
+    }
+
+    /**
+     * Check a file, and for a valid source file, check that it has a unique solution
+     */
+    private static BiSupplier<List<String>, Layout> checkFileForReport(String fileName) {
+        BiSupplier<List<String>, Layout> data = checkFile(fileName);
+        if (data.getOne().isEmpty() && !RESULT_FILE.matcher(fileName).matches())
+            checkUniqueSolution(new GaramSolver(data.getTwo()).countSolutions(2), "this grid", data.getOne());
+        return data;
+    }
+
+    /**
+     * Check the layout of a file, and its equations once all their cells are known (all of them for a result file)
+     * @return composite: list of errors found and the parsed layout (null when it cannot be parsed)
+     */
+    static BiSupplier<List<String>, Layout> checkFile(String fileName) {
+        List<String> errors = new ArrayList<>();
+        Layout layout = Layout.parse(GridReader.read(fileName), errors);
+        if (!errors.isEmpty())
+            return buildBiSupplier(errors, layout);
+
+        boolean result = RESULT_FILE.matcher(fileName).matches();
+        for (int cell = 0; cell < layout.givens.length; cell++)
+            if (result && layout.givens[cell] == GridReader.EMPTY)
+                errors.add("Missing digit at " + layout.positionName(layout.positions[cell]));
+        for (Equation equation : layout.equations)
+            if (equation.isKnown(layout.givens) && !equation.holds(layout.givens))
+                errors.add("Wrong equation in " + equation.lineName + ": " + layout.text(equation, layout.givens));
+        return buildBiSupplier(errors, layout);
+    }
+
+    /**
+     * @return the characters of the result which differ from the source, except the digits of the empty cells
+     */
+    private static List<String> compareData(Layout result, Layout source) {
+        List<String> differences = new ArrayList<>();
+        if (result.height != source.height || result.width != source.width)
+            return Collections.singletonList("Not the size of the source (found=" + result.height + "x" + result.width + " v. expected=" + source.height + "x" + source.width + ")");
+        for (int position = 0; position < source.chars.length; position++) {
+            char expected = source.chars[position];
+            char found = result.chars[position];
+            if (found != expected && !(expected == Layout.EMPTY && Character.isDigit(found)))
+                differences.add("Not the same as the source at " + source.positionName(position) + " (found='" + found + "' v. expected='" + expected + "')");
+        }
+        return differences;
+    }
+
+    /**
+     * An equation left operator right = result, over cell indices (the result cells from the most significant digit)
+     */
+    static final class Equation {
+        final char operator;
+        final int left;
+        final int right;
+        final int[] result;
+        final int limit; // 10^(result digits), the result is below it
+        final int[] symbols; // positions of all the characters of the equation, for the messages
+        final String lineName;
+
+        private Equation(char operator, int left, int right, int[] result, int[] symbols, String lineName) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.limit = (int) Math.pow(10, result.length);
+            this.symbols = symbols;
+            this.lineName = lineName;
+        }
+
+        /**
+         * @return the value of the left side, negative when it cannot be written with digits
+         */
+        int compute(int leftValue, int rightValue) {
+            switch (operator) {
+                case '+':
+                    return leftValue + rightValue;
+                case '-':
+                    return leftValue - rightValue;
+                default:
+                    return leftValue * rightValue;
+            }
+        }
+
+        /**
+         * @param values digit of each cell, {@link GridReader#EMPTY} when unknown
+         */
+        boolean isKnown(int[] values) {
+            if (values[left] == GridReader.EMPTY || values[right] == GridReader.EMPTY)
+                return false;
+            for (int cell : result)
+                if (values[cell] == GridReader.EMPTY)
+                    return false;
+            return true;
+        }
+
+        /**
+         * @param values digit of each cell, all the cells of the equation being known
+         */
+        boolean holds(int[] values) {
+            int resultValue = 0;
+            for (int cell : result)
+                resultValue = resultValue * 10 + values[cell];
+            return compute(values[left], values[right]) == resultValue;
+        }
+    }
+
+    /**
+     * The parsed layout of a file: the characters, the cells (reading order) and the equations
+     */
+    static final class Layout {
+        static final char EMPTY = '_';
+
+        final int height;
+        final int width;
+        final char[] chars; // row * width + column, the rows padded with spaces
+        final int[] lineLengths;
+        final int[] positions; // position of each cell in chars
+        final int[] givens; // digit of each cell, GridReader.EMPTY for '_'
+        final List<Equation> equations = new ArrayList<>();
+
+        private Layout(int height, int width, char[] chars, int[] lineLengths, int[] positions, int[] givens) {
+            this.height = height;
+            this.width = width;
+            this.chars = chars;
+            this.lineLengths = lineLengths;
+            this.positions = positions;
+            this.givens = givens;
+        }
+
+        /**
+         * @param errors receives the problems found: unacceptable characters, malformed equations, cells or symbols out of any equation
+         */
+        static Layout parse(GridReader grid, List<String> errors) {
+            int height = grid.lineCount();
+            int[] lineLengths = new int[height];
+            int width = 0;
+            for (int row = 0; row < height; row++) {
+                lineLengths[row] = grid.lineLength(row);
+                width = Math.max(width, lineLengths[row]);
+            }
+            char[] chars = new char[height * width];
+            Arrays.fill(chars, ' ');
+            int[] cellAt = new int[chars.length];
+            Arrays.fill(cellAt, -1);
+            int cellCount = 0;
+            for (int row = 0; row < height; row++) {
+                for (int column = 0; column < lineLengths[row]; column++) {
+                    char c = grid.charAt(row, column);
+                    int position = row * width + column;
+                    chars[position] = c;
+                    if (c == EMPTY || Character.isDigit(c))
+                        cellAt[position] = cellCount++;
+                    else if (c != ' ' && c != '=' && !isOperator(c))
+                        errors.add("Not an acceptable character (found=" + c + ") at [" + (row + 1) + "," + (column + 1) + "]");
+                }
+            }
+
+            int[] positions = new int[cellCount];
+            int[] givens = new int[cellCount];
+            for (int position = 0; position < chars.length; position++) {
+                if (cellAt[position] < 0)
+                    continue;
+                positions[cellAt[position]] = position;
+                givens[cellAt[position]] = chars[position] == EMPTY ? GridReader.EMPTY : chars[position] - '0';
+            }
+
+            Layout layout = new Layout(height, width, chars, lineLengths, positions, givens);
+            boolean[] used = new boolean[chars.length];
+            for (int row = 0; row < height; row++)
+                layout.parseLine(row * width, 1, width, "the row #" + (row + 1), cellAt, used, errors);
+            for (int column = 0; column < width; column++)
+                layout.parseLine(column, width, height, "the column #" + (column + 1), cellAt, used, errors);
+
+            for (int position = 0; position < chars.length; position++)
+                if (chars[position] != ' ' && !used[position])
+                    errors.add("Out of any equation: '" + chars[position] + "' at " + layout.positionName(position));
+
+            return layout;
+        }
+
+        private static boolean isOperator(char c) {
+            return c == '+' || c == '-' || c == 'x';
+        }
+
+        /**
+         * Split a line into its runs of characters without spaces: a run of several characters must be an equation
+         * @param start position of the first character of the line
+         * @param step from a character of the line to the next one
+         */
+        private void parseLine(int start, int step, int length, String lineName, int[] cellAt, boolean[] used, List<String> errors) {
+            int index = 0;
+            while (index < length) {
+                if (chars[start + index * step] == ' ') {
+                    index++;
+                    continue;
+                }
+                int runStart = index;
+                while (index < length && chars[start + index * step] != ' ')
+                    index++;
+                if (index - runStart == 1)
+                    continue; // part of an equation of the other direction
+                int[] symbols = new int[index - runStart];
+                for (int i = 0; i < symbols.length; i++)
+                    symbols[i] = start + (runStart + i) * step;
+                Equation equation = parseEquation(symbols, lineName, cellAt);
+                if (equation == null)
+                    errors.add("Not an equation in " + lineName + ": " + text(symbols, givens));
+                else
+                    equations.add(equation);
+                for (int symbol : symbols)
+                    used[symbol] = true;
+            }
+        }
+
+        /**
+         * @return the equation "a op b = result" written with these characters, null when they do not follow this pattern
+         */
+        private Equation parseEquation(int[] symbols, String lineName, int[] cellAt) {
+            if (symbols.length < 5 || !isOperator(chars[symbols[1]]) || chars[symbols[3]] != '=')
+                return null;
+            int[] result = new int[symbols.length - 4];
+            for (int i = 0; i < symbols.length; i++) {
+                if (i != 1 && i != 3 && cellAt[symbols[i]] < 0)
+                    return null;
+                if (i >= 4)
+                    result[i - 4] = cellAt[symbols[i]];
+            }
+            return new Equation(chars[symbols[1]], cellAt[symbols[0]], cellAt[symbols[2]], result, symbols, lineName);
+        }
+
+        String positionName(int position) {
+            return "[" + (position / width + 1) + "," + (position % width + 1) + "]";
+        }
+
+        /**
+         * @param values digit of each cell, {@link GridReader#EMPTY} when unknown
+         */
+        String text(Equation equation, int[] values) {
+            return text(equation.symbols, values);
+        }
+
+        private String text(int[] symbols, int[] values) {
+            StringBuilder text = new StringBuilder();
+            for (int symbol : symbols)
+                text.append(charWith(symbol, values));
+            return text.toString();
+        }
+
+        private char charWith(int position, int[] values) {
+            char c = chars[position];
+            if (c != EMPTY && !Character.isDigit(c))
+                return c;
+            int cell = Arrays.binarySearch(positions, position);
+            return values[cell] == GridReader.EMPTY ? EMPTY : (char) ('0' + values[cell]);
+        }
+
+        /**
+         * @param values digit of each cell, {@link GridReader#EMPTY} when unknown
+         * @return the layout with these digits in the cells, the lines keeping their length
+         */
+        String render(int[] values) {
+            StringBuilder text = new StringBuilder();
+            for (int row = 0; row < height; row++) {
+                if (row > 0)
+                    text.append('\n');
+                for (int column = 0; column < lineLengths[row]; column++)
+                    text.append(charWith(row * width + column, values));
+            }
+            return text.toString();
+        }
+    }
+
+}
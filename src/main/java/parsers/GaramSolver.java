@@ -0,0 +1,102 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of Garam layouts, counting solutions up to a limit. The candidates of each cell are a bit mask (bit = 1 << digit, 0 included).
+ * The propagation keeps, for each equation, the digits of its cells supported by a pair of operands
+ * giving a result written with the candidates of the result cells, before branching on the cell with the fewest candidates.
+ * Run as a program, it solves the garam/ sources and writes the missing results to _computed.txt files.
+ */
+final class GaramSolver extends CandidatesSolver {
+
+    private static final int ALL_DIGITS = 0x3FF; // 0..9
+
+    private final Garam.Equation[] equations;
+    private final int[] initial; // candidates before any deduction
+
+    // digits supported by the result cells of the equation being propagated
+    private final int[] resultSupport;
+
+    /**
+     * @param layout parsed layout of a source file without errors
+     */
+    GaramSolver(Garam.Layout layout) {
+        this.equations = layout.equations.toArray(new Garam.Equation[0]);
+        this.resultSupport = new int[Arrays.stream(equations).mapToInt(equation -> equation.result.length).max().orElse(0)];
+        this.initial = Arrays.stream(layout.givens).map(given -> given == GridReader.EMPTY ? ALL_DIGITS : 1 << given).toArray();
+    }
+
+    public static void main(String[] args) {
+        String pathName = args.length > 0 ? args[0] : new Garam().pathName();
+        ComputedFiles.solveAll(pathName, fileName -> {
+            CommonChecker.BiSupplier<List<String>, Garam.Layout> source = Garam.checkFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            GaramSolver solver = new GaramSolver(source.getTwo());
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.ofText(solutions, solutions > 0 ? source.getTwo().render(solver.solution()) : null);
+        });
+    }
+
+    protected int[] initialCandidates() {
+        return initial.clone();
+    }
+
+    /**
+     * Keep the supported digits of the cells of each equation until nothing changes
+     * @return false when a contradiction is found
+     */
+    protected boolean propagate(int[] candidates) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Garam.Equation equation : equations) {
+                int[] result = equation.result;
+                int leftSupport = 0;
+                int rightSupport = 0;
+                Arrays.fill(resultSupport, 0, result.length, 0);
+                for (int left = candidates[equation.left]; left != 0; left &= left - 1) {
+                    int leftValue = Integer.numberOfTrailingZeros(left);
+                    for (int right = candidates[equation.right]; right != 0; right &= right - 1) {
+                        int rightValue = Integer.numberOfTrailingZeros(right);
+                        int value = equation.compute(leftValue, rightValue);
+                        if (value < 0 || value >= equation.limit || !fits(candidates, result, value))
+                            continue;
+                        leftSupport |= 1 << leftValue;
+                        rightSupport |= 1 << rightValue;
+                        for (int i = result.length - 1; i >= 0; i--, value /= 10)
+                            resultSupport[i] |= 1 << value % 10;
+                    }
+                }
+                if (leftSupport == 0)
+                    return false;
+                changed |= restrict(candidates, equation.left, leftSupport);
+                changed |= restrict(candidates, equation.right, rightSupport);
+                for (int i = 0; i < result.length; i++)
+                    changed |= restrict(candidates, result[i], resultSupport[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true when the digits of the value (with leading zeros) are candidates of the result cells
+     */
+    private static boolean fits(int[] candidates, int[] result, int value) {
+        for (int i = result.length - 1; i >= 0; i--, value /= 10)
+            if ((candidates[result[i]] & 1 << value % 10) == 0)
+                return false;
+        return true;
+    }
+
+    private static boolean restrict(int[] candidates, int cell, int support) {
+        int reduced = candidates[cell] & support;
+        if (reduced == candidates[cell])
+            return false;
+        candidates[cell] = reduced;
+        return true;
+    }
+
+}
@@ -0,0 +1,156 @@
+package parsers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Character grid file (one row per line, one cell per character) read in a single call
+ * and decoded with a lookup table: digits are values, '_' is an empty cell.
+ * Lines are split like {@link java.io.BufferedReader#readLine()} does (\n, \r or \r\n).
+ */
+final class GridReader {
+
+    static final int EMPTY = -1;
+    private static final int INVALID = -2;
+
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, INVALID);
+        for (char c = '0'; c <= '9'; c++)
+            DECODE[c] = c - '0';
+        DECODE['_'] = EMPTY;
+    }
+
+    /**
+     * Receives the problems found while decoding
+     */
+    interface ProblemConsumer {
+        /**
+         * @param row row index (starts at 0), -1 for a problem about the whole grid
+         * @param column column index (starts at 0), -1 for a problem about a whole row
+         */
+        void accept(int row, int column, String description);
+    }
+
+    private final byte[] bytes;
+    private final char[] chars; // only for files with non ASCII characters, null otherwise
+    private int[] lineStarts = new int[16];
+    private int[] lineEnds = new int[16];
+    private int lineCount;
+
+    private GridReader(byte[] bytes) {
+        this.bytes = bytes;
+        this.chars = isAscii(bytes) ? null : new String(bytes, Charset.defaultCharset()).toCharArray();
+        indexLines(chars == null ? bytes.length : chars.length);
+    }
+
+    static GridReader read(String fileName) {
+        try {
+            return new GridReader(Files.readAllBytes(Paths.get(fileName)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes)
+            if (b < 0)
+                return false;
+        return true;
+    }
+
+    private int charAt(int position) {
+        return chars == null ? bytes[position] : chars[position];
+    }
+
+    private void indexLines(int length) {
+        int start = 0;
+        int position = 0;
+        while (position < length) {
+            int c = charAt(position);
+            if (c == '\n' || c == '\r') {
+                addLine(start, position);
+                if (c == '\r' && position + 1 < length && charAt(position + 1) == '\n')
+                    position++;
+                start = position + 1;
+            }
+            position++;
+        }
+        if (start < length)
+            addLine(start, length);
+    }
+
+    private void addLine(int start, int end) {
+        if (lineCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+        }
+        lineStarts[lineCount] = start;
+        lineEnds[lineCount] = end;
+        lineCount++;
+    }
+
+    int lineCount() {
+        return lineCount;
+    }
+
+    int lineLength(int line) {
+        return lineEnds[line] - lineStarts[line];
+    }
+
+    /**
+     * @return the decoded value of a cell, {@link #EMPTY} for '_', a negative value for any other character
+     */
+    private int valueAt(int line, int column) {
+        int c = charAt(lineStarts[line] + column);
+        return c < DECODE.length ? DECODE[c] : INVALID;
+    }
+
+    /**
+     * Decode a grid of known size, reporting badly sized rows, unacceptable characters and a bad rows count
+     * @return flat grid (index = row * width + column), {@link #EMPTY} for the empty or missing cells
+     */
+    int[] decode(int width, int height, ProblemConsumer problems) {
+        int[] cells = new int[width * height];
+        Arrays.fill(cells, EMPTY);
+        for (int row = 0; row < lineCount; row++) {
+            int length = lineLength(row);
+            if (length != width)
+                problems.accept(row, -1, "Not the right characters count on this row (found=" + length + ")");
+            for (int column = 0; column < length; column++) {
+                int value = valueAt(row, column);
+                if (value == INVALID)
+                    problems.accept(row, column, "Not an acceptable character (found=" + (char) charAt(lineStarts[row] + column) + ")");
+                else if (row < height && column < width)
+                    cells[row * width + column] = value;
+            }
+        }
+        if (lineCount != height)
+            problems.accept(-1, -1, "Not the right rows count (found=" + lineCount + ")");
+        return cells;
+    }
+
+    /**
+     * @return the character of a cell
+     */
+    char charAt(int line, int column) {
+        return (char) charAt(lineStarts[line] + column);
+    }
+
+    /**
+     * @return the digit of a cell
+     * @throws NumberFormatException when the cell is not a digit
+     */
+    int digitAt(int line, int column) {
+        int value = valueAt(line, column);
+        if (value < 0)
+            throw new NumberFormatException("For input string: \"" + (char) charAt(lineStarts[line] + column) + "\"");
+        return value;
+    }
+
+}
@@ -0,0 +1,169 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class Kakuro extends AreaBased {
+    private static final String propertiesFileName = "kakuro.properties";
+
+    private static final String intercells = "separator.inter-cells";
+    private static final String keyvalues = "separator.key-values";
+    private static final String prefilledvalues = "separator.prefilled-values";
+
+    public Kakuro() {
+        this("kakuro/");
+    }
+
+    public Kakuro(String pathName) {
+        super(pathName, propertiesFileName);
+    }
+
+    public static void main(String[] args) {
+        new Kakuro().run();
+    }
+
+    /**
+     * A run of adjacent cells on a row or a column, filled with distinct digits giving its sum
+     */
+    static final class Run extends Area {
+        final int sum;
+        final int[] prefilled; // GridReader.EMPTY when the cell has no (valid) prefilled value
+        final boolean horizontal;
+
+        private Run(String rule, String[] cellIds, int sum, int[] prefilled) {
+            super(rule, cellIds);
+            this.sum = sum;
+            this.prefilled = prefilled;
+            this.horizontal = Arrays.stream(rows).allMatch(row -> row == rows[0]);
+        }
+
+        /**
+         * @return true when the cells follow each other on a row or a column
+         */
+        boolean isStraight() {
+            int[] positions = horizontal ? columns : rows;
+            int[] others = horizontal ? rows : columns;
+            for (int i = 1; i < positions.length; i++)
+                if (others[i] != others[0] || positions[i] != positions[i - 1] + 1)
+                    return false;
+            return true;
+        }
+
+        protected void checkFilling(int[] values, List<String> errors) {
+            int found = 0;
+            int foundSum = 0;
+            for (int i = 0; i < cells.length; i++) {
+                int value = values[cells[i]];
+                if (value < 1 || value > 9) {
+                    errors.add("Missing digit in run: " + rule + " at " + cellName(rows[i], columns[i]) + " (found=" + value + ")");
+                    continue;
+                }
+                if ((found & 1 << value) != 0)
+                    errors.add("Same digit (" + value + ") several times in run: " + rule);
+                found |= 1 << value;
+                foundSum += value;
+                if (prefilled[i] != GridReader.EMPTY && value != prefilled[i])
+                    errors.add("Prefilled value not kept in run " + rule + ": " + cellName(rows[i], columns[i]) + " (found=" + value + " v. expected=" + prefilled[i] + ")");
+            }
+            if (foundSum != sum)
+                errors.add("Invalid sum computed: " + rule + " (found=" + foundSum + " v. expected=" + sum + ")");
+        }
+    }
+
+    protected Area compileArea(String rule, List<String> errors) {
+        String[] split = rule.split(properties.getProperty(keyvalues));
+        String[] items = split[0].split(properties.getProperty(intercells));
+        String[] cellIds = new String[items.length];
+        int[] prefilled = new int[items.length];
+        int found = 0;
+        for (int i = 0; i < items.length; i++) {
+            String[] cellSplit = items[i].split(properties.getProperty(prefilledvalues));
+            cellIds[i] = cellSplit[0];
+            prefilled[i] = GridReader.EMPTY;
+            if (cellSplit.length > 1) {
+                int value = Integer.parseInt(cellSplit[1]);
+                if (value < 1 || value > 9 || (found & 1 << value) != 0)
+                    errors.add("Found a bad prefilled value (" + value + ") for run: " + rule);
+                else {
+                    prefilled[i] = value;
+                    found |= 1 << value;
+                }
+            }
+        }
+
+        int sum = 0;
+        try {
+            sum = Integer.parseInt(split[1]);
+            if (items.length < 2 || items.length > 9 || sum < 0 || sum > KakuroSolver.MAX_SUM || KakuroSolver.ALLOWED[sum][items.length] == 0)
+                errors.add("Impossible sum for " + items.length + " distinct digits: " + rule);
+            else if ((found & ~KakuroSolver.ALLOWED[sum][items.length]) != 0)
+                errors.add("Prefilled values not compatible with the sum: " + rule);
+        } catch (Exception e) {
+            errors.add("Bad config: " + rule);
+        }
+
+        Run run = new Run(rule, cellIds, sum, prefilled);
+        if (!run.isStraight())
+            errors.add("Not a run of adjacent cells on a row or a column: " + rule);
+        return run;
+    }
+
+    /**
+     * Each cell belongs to at most one horizontal run and one vertical run, the other cells are blocked.
+     * A cell prefilled in both its runs has the same value in both of them.
+     */
+    protected void checkCells(Areas areas, List<String> errors) {
+        int[] horizontalCounts = new int[areas.height * areas.width];
+        int[] verticalCounts = new int[areas.height * areas.width];
+        int[] prefilled = new int[areas.height * areas.width];
+        Arrays.fill(prefilled, GridReader.EMPTY);
+        for (Area area : areas.areas) {
+            Run run = (Run) area;
+            int[] counts = run.horizontal ? horizontalCounts : verticalCounts;
+            for (int i = 0; i < run.cells.length; i++) {
+                int cell = run.cells[i];
+                counts[cell]++;
+                if (run.prefilled[i] == GridReader.EMPTY)
+                    continue;
+                if (prefilled[cell] != GridReader.EMPTY && prefilled[cell] != run.prefilled[i])
+                    errors.add("Different prefilled values (" + prefilled[cell] + " and " + run.prefilled[i] + ") for the cell: " + cellName(run.rows[i], run.columns[i]));
+                prefilled[cell] = run.prefilled[i];
+            }
+        }
+        for (int cell = 0; cell < horizontalCounts.length; cell++) {
+            if (horizontalCounts[cell] > 1)
+                errors.add("Found the same cell in several horizontal runs (" + horizontalCounts[cell] + "): " + cellName(cell / areas.width, cell % areas.width));
+            if (verticalCounts[cell] > 1)
+                errors.add("Found the same cell in several vertical runs (" + verticalCounts[cell] + "): " + cellName(cell / areas.width, cell % areas.width));
+        }
+    }
+
+    /**
+     * The blocked cells are written '#' in the result files
+     */
+    protected int cellValue(GridReader grid, int row, int column) {
+        return grid.charAt(row, column) == ComputedFiles.BLOCKED ? GridReader.EMPTY : grid.digitAt(row, column);
+    }
+
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        for (int row = 0; row < values.length; row++)
+            for (int column = 0; column < values[row].length; column++)
+                if (values[row][column] == 0)
+                    errors.add("Not a digit from 1 to 9 (found=0): " + cellName(row, column));
+    }
+
+    /**
+     * Besides the runs, the cells out of any run must be blocked
+     */
+    public List<String> compareData(Areas areas, Integer[][] results) {
+        List<String> errors = super.compareData(areas, results);
+        boolean[] covered = new boolean[areas.height * areas.width];
+        areas.areas.forEach(area -> Arrays.stream(area.cells).forEach(cell -> covered[cell] = true));
+        for (int row = 0; row < results.length; row++)
+            for (int column = 0; column < results[row].length; column++)
+                if (results[row][column] != GridReader.EMPTY && (row >= areas.height || column >= areas.width || !covered[row * areas.width + column]))
+                    errors.add("Not a blocked cell: " + cellName(row, column) + " (found=" + results[row][column] + ")");
+        return errors;
+    }
+
+}
@@ -0,0 +1,155 @@
+package parsers;
+
+import java.util.List;
+
+/**
+ * Solver of Kakuro grids (each run holds distinct digits from 1 to 9 giving its sum), counting solutions up to a limit.
+ * The candidates of each cell are a bit mask (bit = 1 << value). The digit sets of every (sum, length) are computed once:
+ * the propagation keeps the sets of a run which still fit its cells, restricts the cells to their union,
+ * removes the solved values from the other cells of the run and places the values with a single possible cell,
+ * before branching on the cell with the fewest candidates.
+ * Run as a program, it solves the kakuro/ sources and writes the missing results to _computed.txt files.
+ */
+final class KakuroSolver extends CandidatesSolver {
+
+    static final int MAX_SUM = 45; // 1 + 2 + ... + 9
+    private static final int ALL_DIGITS = 0x3FE; // 1..9
+
+    // COMBINATIONS[sum][length]: the digit sets (bit = 1 << digit) of this length giving this sum
+    private static final int[][][] COMBINATIONS = new int[MAX_SUM + 1][10][];
+    // ALLOWED[sum][length]: union of these digit sets, 0 when the sum cannot be reached
+    static final int[][] ALLOWED = new int[MAX_SUM + 1][10];
+
+    static {
+        int[][] counts = new int[MAX_SUM + 1][10];
+        for (int digits = 0; digits <= ALL_DIGITS; digits += 2)
+            counts[sum(digits)][Integer.bitCount(digits)]++;
+        for (int sum = 0; sum <= MAX_SUM; sum++)
+            for (int length = 0; length < 10; length++)
+                COMBINATIONS[sum][length] = new int[counts[sum][length]];
+        for (int digits = 0; digits <= ALL_DIGITS; digits += 2) {
+            int sum = sum(digits);
+            int length = Integer.bitCount(digits);
+            COMBINATIONS[sum][length][--counts[sum][length]] = digits;
+            ALLOWED[sum][length] |= digits;
+        }
+    }
+
+    private static int sum(int digits) {
+        int sum = 0;
+        for (int bits = digits; bits != 0; bits &= bits - 1)
+            sum += Integer.numberOfTrailingZeros(bits);
+        return sum;
+    }
+
+    private final int width;
+    private final int[][] runs; // cells of each run
+    private final int[][] runCombinations; // digit sets of each run
+    private final int[] initial; // candidates before any deduction, 0 for the blocked cells
+
+    /**
+     * @param areas compiled runs of a source file without errors
+     */
+    KakuroSolver(AreaBased.Areas areas) {
+        this.width = areas.width;
+        this.runs = areas.areas.stream().map(area -> area.cells).toArray(int[][]::new);
+        this.runCombinations = areas.areas.stream()
+                .map(area -> COMBINATIONS[((Kakuro.Run) area).sum][area.cells.length])
+                .toArray(int[][]::new);
+        this.initial = new int[areas.height * areas.width];
+        for (AreaBased.Area area : areas.areas) {
+            Kakuro.Run run = (Kakuro.Run) area;
+            for (int i = 0; i < run.cells.length; i++) {
+                if (run.prefilled[i] != GridReader.EMPTY)
+                    initial[run.cells[i]] = 1 << run.prefilled[i];
+                else if (initial[run.cells[i]] == 0)
+                    initial[run.cells[i]] = ALL_DIGITS; // unless prefilled in its other run
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Kakuro kakuro = new Kakuro(args.length > 0 ? args[0] : "kakuro/");
+        ComputedFiles.solveAll(kakuro.pathName(), fileName -> {
+            CommonChecker.BiSupplier<List<String>, AreaBased.Areas> source = kakuro.checkSourceFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            KakuroSolver solver = new KakuroSolver(source.getTwo());
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), solver.width);
+        });
+    }
+
+    protected int[] initialCandidates() {
+        return initial.clone();
+    }
+
+    // the cells out of the runs have no candidate
+    protected int value(int candidates) {
+        return candidates == 0 ? GridReader.EMPTY : Integer.numberOfTrailingZeros(candidates);
+    }
+
+    /**
+     * Restrict the cells of each run to the digit sets still possible, remove the solved values from the other cells
+     * of the run and place the hidden singles, until nothing changes
+     * @return false when a contradiction is found
+     */
+    protected boolean propagate(int[] candidates) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int run = 0; run < runs.length; run++) {
+                int[] cells = runs[run];
+                int solved = 0;
+                int once = 0;
+                int twice = 0;
+                for (int cell : cells) {
+                    int cellCandidates = candidates[cell];
+                    if (Integer.bitCount(cellCandidates) == 1) {
+                        if ((solved & cellCandidates) != 0)
+                            return false; // the same value solved twice
+                        solved |= cellCandidates;
+                    }
+                    twice |= once & cellCandidates;
+                    once |= cellCandidates;
+                }
+
+                int allowed = 0;
+                int required = ALL_DIGITS;
+                for (int digits : runCombinations[run]) {
+                    if ((digits & solved) != solved || (digits & once) != digits)
+                        continue;
+                    boolean fits = true;
+                    for (int i = 0; i < cells.length && fits; i++)
+                        fits = (candidates[cells[i]] & digits) != 0;
+                    if (fits) {
+                        allowed |= digits;
+                        required &= digits;
+                    }
+                }
+                if (allowed == 0)
+                    return false; // no digit set fits this run
+
+                int hidden = required & ~twice & ~solved;
+                for (int cell : cells) {
+                    int cellCandidates = candidates[cell];
+                    int reduced = cellCandidates & allowed;
+                    if (Integer.bitCount(cellCandidates) != 1) {
+                        reduced &= ~solved;
+                        if ((reduced & hidden) != 0)
+                            reduced &= hidden;
+                    }
+                    if (reduced == 0 || Integer.bitCount(reduced & hidden) > 1)
+                        return false;
+                    if (reduced != cellCandidates) {
+                        candidates[cell] = reduced;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -3,10 +3,6 @@ package parsers;
 import java.util.Arrays;
 import java.util.IntSummaryStatistics;
 import java.util.List;
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
 public class Kemaru extends AreaBased {
     private static final String propertiesFileName = "kemaru.properties";
@@ -14,53 +10,88 @@ public class Kemaru extends AreaBased {
     private static final String intercells = "separator.inter-cells";
     private static final String prefilledvalues = "separator.prefilled-values";
 
+    public Kemaru() {
+        this("kemaru/");
+    }
+
     public Kemaru(String pathName) {
         super(pathName, propertiesFileName);
     }
 
     public static void main(String[] args) {
-        new Kemaru("kemaru/").run();
+        new Kemaru().run();
     }
 
-    protected List<String> extractCells(List<String> rules) {
-        return rules.stream()
-                .map(line -> Arrays.stream(line.split(properties.getProperty(intercells))))
-                .flatMap(Function.identity())
-                .collect(Collectors.toList());
-    }
+    /**
+     * A block of n cells, filled with the values from 1 to n
+     */
+    static final class Block extends Area {
+        final String[] items;
+        final int[] prefilled; // GridReader.EMPTY when the cell has no (valid) prefilled value
 
-    @Override
-    protected UnaryOperator<String> cellIdExtractor() {
-        return cellId -> cellId.split(properties.getProperty(prefilledvalues))[0];
-    }
+        private Block(String rule, String[] items, String[] cellIds, int[] prefilled) {
+            super(rule, cellIds);
+            this.items = items;
+            this.prefilled = prefilled;
+        }
 
-    protected void processSourceData(List<String> rules, List<String> errors) {
-        rules.forEach(rule -> {
-            String[] items = rule.split(properties.getProperty(intercells));
-            Arrays.stream(items).map(findValue).filter(Optional::isPresent).map(Optional::get).filter(v -> v < 1 || v > items.length).forEach(v ->
-                errors.add("Found a bad prefilled value ("+v+") for block: "+Arrays.toString(items))
-            );
-        });
-    }
+        protected void checkFilling(int[] values, List<String> errors) {
+            IntSummaryStatistics statistics = new IntSummaryStatistics();
+            int found = 0;
+            for (int cell : cells) {
+                statistics.accept(values[cell]);
+                if (values[cell] >= 1 && values[cell] <= items.length)
+                    found |= 1 << values[cell];
+            }
+            if(found != ((1 << items.length) - 1) << 1)
+                errors.add("Wrong filling block "+Arrays.toString(items)+" (check stats="+statistics+")");
 
-    protected void extraChecksOnResults(List<String> lines, Integer[][] values, List<String> errors) {
-        // do nothing here
+            for (int i = 0; i < cells.length; i++) {
+                if (prefilled[i] != GridReader.EMPTY && values[cells[i]] != prefilled[i])
+                    errors.add("Prefilled value not kept in block "+Arrays.toString(items)+": "+cellName(rows[i], columns[i])+" (found="+values[cells[i]]+" v. expected="+prefilled[i]+")");
+            }
+        }
     }
 
-    protected void specificCheckOnAreaFilling(String rule, Integer[][] results, List<String> errors) {
+    protected Area compileArea(String rule, List<String> errors) {
         String[] items = rule.split(properties.getProperty(intercells));
-        IntSummaryStatistics statistics = Arrays.stream(items).mapToInt(item -> results[findRowNumber.apply(item)][findColumnNumber.apply(item)]).summaryStatistics();
-        if(statistics.getCount() != items.length || statistics.getMin() != 1 || statistics.getMax() != items.length)
-            errors.add("Wrong filling block "+Arrays.toString(items)+" (check stats="+statistics+")");
+        String[] cellIds = new String[items.length];
+        int[] prefilled = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            String[] split = items[i].split(properties.getProperty(prefilledvalues));
+            cellIds[i] = split[0];
+            prefilled[i] = GridReader.EMPTY;
+            if(split.length > 1) {
+                int value = Integer.parseInt(split[1]);
+                if(value < 1 || value > items.length)
+                    errors.add("Found a bad prefilled value ("+value+") for block: "+Arrays.toString(items));
+                else
+                    prefilled[i] = value;
+            }
+        }
+        return new Block(rule, items, cellIds, prefilled);
     }
 
-    private final Function<String, Optional<Integer>> findValue = cellId -> {
-        String[] split = cellId.split(properties.getProperty(prefilledvalues));
-        if(split.length == 1)
-            return Optional.empty();
-        else
-            return Optional.of(Integer.valueOf(split[1]));
-    };
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        // do nothing here
+    }
 
+    /**
+     * Besides the blocks, equal values must not touch, even diagonally
+     */
+    public List<String> compareData(Areas areas, Integer[][] results) {
+        List<String> errors = super.compareData(areas, results);
+        int height = results.length;
+        int width = height == 0 ? 0 : results[0].length;
+        int[][] neighbours = KemaruSolver.neighbours(height, width);
+        for (int cell = 0; cell < neighbours.length; cell++) {
+            int value = results[cell / width][cell % width];
+            for (int neighbour : neighbours[cell]) {
+                if (neighbour > cell && results[neighbour / width][neighbour % width] == value)
+                    errors.add("Same value ("+value+") in touching cells: "+cellName(cell / width, cell % width)+" and "+cellName(neighbour / width, neighbour % width));
+            }
+        }
+        return errors;
+    }
 
 }
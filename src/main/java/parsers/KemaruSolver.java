@@ -0,0 +1,129 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of Kemaru grids (each block of n cells holds the values 1..n, equal values never touch, even diagonally),
+ * counting solutions up to a limit. The candidates of each cell are a bit mask (bit = 1 << value):
+ * a solved value is removed from the other cells of its block and from the touching cells (precomputed neighbour table),
+ * a value with a single possible cell in its block is placed, then the search branches on the cell with the fewest candidates.
+ * Run as a program, it solves the kemaru/ sources and writes the missing results to _computed.txt files.
+ */
+final class KemaruSolver extends CandidatesSolver {
+
+    private final int width;
+    private final int[][] neighbours;
+    private final int[][] blocks; // cells of each block
+    private final int[] initial; // candidates before any deduction
+
+    /**
+     * @param areas compiled blocks of a source file without errors
+     */
+    KemaruSolver(AreaBased.Areas areas) {
+        this.width = areas.width;
+        this.neighbours = neighbours(areas.height, areas.width);
+        this.blocks = areas.areas.stream().map(area -> area.cells).toArray(int[][]::new);
+        this.initial = new int[areas.height * areas.width];
+        for (AreaBased.Area area : areas.areas) {
+            Kemaru.Block block = (Kemaru.Block) area;
+            for (int i = 0; i < block.cells.length; i++)
+                initial[block.cells[i]] = block.prefilled[i] == GridReader.EMPTY ? ((1 << block.cells.length) - 1) << 1 : 1 << block.prefilled[i];
+        }
+    }
+
+    public static void main(String[] args) {
+        Kemaru kemaru = new Kemaru(args.length > 0 ? args[0] : "kemaru/");
+        ComputedFiles.solveAll(kemaru.pathName(), fileName -> {
+            CommonChecker.BiSupplier<List<String>, AreaBased.Areas> source = kemaru.checkSourceFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            KemaruSolver solver = new KemaruSolver(source.getTwo());
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), solver.width);
+        });
+    }
+
+    /**
+     * @return for each cell (row * width + column), the cells touching it, diagonals included
+     */
+    static int[][] neighbours(int height, int width) {
+        int[][] neighbours = new int[height * width][];
+        int[] buffer = new int[8];
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                int count = 0;
+                for (int otherRow = Math.max(0, row - 1); otherRow <= Math.min(height - 1, row + 1); otherRow++)
+                    for (int otherColumn = Math.max(0, column - 1); otherColumn <= Math.min(width - 1, column + 1); otherColumn++)
+                        if (otherRow != row || otherColumn != column)
+                            buffer[count++] = otherRow * width + otherColumn;
+                neighbours[row * width + column] = Arrays.copyOf(buffer, count);
+            }
+        }
+        return neighbours;
+    }
+
+    protected int[] initialCandidates() {
+        return initial.clone();
+    }
+
+    /**
+     * Remove the value of each solved cell from its block and its neighbours, and place the hidden singles of the blocks,
+     * until nothing changes
+     * @return false when a contradiction is found
+     */
+    protected boolean propagate(int[] candidates) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int cell = 0; cell < candidates.length; cell++) {
+                int bit = candidates[cell];
+                if (Integer.bitCount(bit) != 1)
+                    continue;
+                for (int neighbour : neighbours[cell]) {
+                    if ((candidates[neighbour] & bit) == 0)
+                        continue;
+                    candidates[neighbour] &= ~bit;
+                    if (candidates[neighbour] == 0)
+                        return false;
+                    changed = true;
+                }
+            }
+
+            for (int[] block : blocks) {
+                int all = ((1 << block.length) - 1) << 1;
+                int solved = 0;
+                int once = 0;
+                int twice = 0;
+                for (int cell : block) {
+                    int cellCandidates = candidates[cell];
+                    if (Integer.bitCount(cellCandidates) == 1) {
+                        if ((solved & cellCandidates) != 0)
+                            return false; // the same value solved twice
+                        solved |= cellCandidates;
+                    }
+                    twice |= once & cellCandidates;
+                    once |= cellCandidates;
+                }
+                if (once != all)
+                    return false; // a value cannot be placed anywhere in this block
+                int hidden = once & ~twice & ~solved;
+                for (int cell : block) {
+                    int cellCandidates = candidates[cell];
+                    if (Integer.bitCount(cellCandidates) == 1)
+                        continue;
+                    int reduced = (cellCandidates & hidden) != 0 ? cellCandidates & hidden : cellCandidates & ~solved;
+                    if (reduced == 0 || Integer.bitCount(reduced & hidden) > 1)
+                        return false;
+                    if (reduced != cellCandidates) {
+                        candidates[cell] = reduced;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,234 @@
+package parsers;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Labychiffres: a path of adjacent cells from the top left cell (entrance) to the bottom right cell (exit),
+ * never crossing the same cell twice, whose values add up to the total.
+ * A source is a JSON file ({"grid": [[17, 69, ...], ...], "total": 1000}). A result file draws the path on the grid:
+ * each cell of the path points to the next one ('>', 'v', '<' or '^'), the exit is '*' and the other cells are '.'.
+ */
+public class Labychiffres extends DifferentFormat<Labychiffres.Grid> {
+
+    static final String MOVES = ">v<^";
+    static final int[] ROW_STEPS = {0, 1, 0, -1};
+    static final int[] COLUMN_STEPS = {1, 0, -1, 0};
+    static final char EXIT = '*';
+    static final char OUT = '.';
+    static final int EXIT_VALUE = MOVES.length();
+    private static final int BAD_VALUE = -2;
+
+    static final int MAX_CELLS = Long.SIZE; // 8 cells at most on the shorter side: the frontier states of the solver hold in an int
+
+    private static final String GRID = "grid";
+    private static final String TOTAL = "total";
+
+    public Labychiffres() {
+        this("labychiffres/");
+    }
+
+    Labychiffres(String pathName) {
+        super(pathName);
+    }
+
+    public static void main(String[] args) {
+        new Labychiffres().run();
+    }
+
+    /**
+     * Content of a source file
+     */
+    static final class Grid {
+        final int height;
+        final int width;
+        final int[] values; // row * width + column
+        final int total;
+        boolean undetermined; // the solver gave up counting the solutions
+
+        private Grid(int height, int width, int[] values, int total) {
+            this.height = height;
+            this.width = width;
+            this.values = values;
+            this.total = total;
+        }
+    }
+
+    protected BiSupplier<List<String>, Grid> checkSourceFile(String fileName) {
+        BiSupplier<List<String>, Grid> source = readFile(fileName);
+        if (source.getOne().isEmpty())
+            checkSolutions(source.getTwo(), source.getOne());
+        return source;
+    }
+
+    /**
+     * Check the content of a source file, without solving it
+     * @return composite: the list of errors found and the source data (null when the file cannot be read)
+     */
+    static BiSupplier<List<String>, Grid> readFile(String fileName) {
+        return readJsonFile(fileName, Labychiffres::read);
+    }
+
+    /**
+     * @throws ClassCastException or NullPointerException when an expected item is missing or not of the right type
+     */
+    private static Grid read(Reader reader, List<String> errors) throws IOException, ParseException {
+        JSONObject json = (JSONObject) new JSONParser().parse(reader);
+        JSONArray rows = (JSONArray) json.get(GRID);
+        int total = ((Long) json.get(TOTAL)).intValue();
+
+        int height = rows.size();
+        int width = height > 0 ? ((JSONArray) rows.get(0)).size() : 0;
+        if (height * width < 2)
+            errors.add("Bad JSON content: not enough cells for a path (got " + height + "x" + width + ")");
+        else if (height * width > MAX_CELLS)
+            errors.add("Bad JSON content: too many cells (got " + height + "x" + width + ", max=" + MAX_CELLS + ")");
+
+        int[] values = new int[height * width];
+        for (int row = 0; row < height; row++) {
+            JSONArray line = (JSONArray) rows.get(row);
+            if (line.size() != width) {
+                errors.add("Bad JSON content: must contain " + width + " values in the row #" + (row + 1) + " (got " + line.size() + ")");
+                continue;
+            }
+            for (int column = 0; column < width; column++) {
+                int value = ((Long) line.get(column)).intValue();
+                if (value < 1)
+                    errors.add("Not a positive value (found=" + value + "): " + cellName(row, column));
+                values[row * width + column] = value;
+            }
+        }
+        if (total < 1)
+            errors.add("Not a positive total (found=" + total + ")");
+
+        return new Grid(height, width, values, total);
+    }
+
+    private static void checkSolutions(Grid grid, List<String> errors) {
+        int solutions = new LabychiffresSolver(grid).countSolutions(2);
+        if (solutions == LabychiffresSolver.UNDETERMINED)
+            grid.undetermined = true;
+        else
+            checkUniqueSolution(solutions, "this grid", errors);
+    }
+
+    protected List<String> notes(Grid grid) {
+        return grid.undetermined
+                ? Collections.singletonList("Uniqueness undetermined: the total (" + grid.total + ") is too large for the solver")
+                : Collections.emptyList();
+    }
+
+    static String cellName(int row, int column) {
+        return "[" + (row + 1) + "," + (column + 1) + "]";
+    }
+
+    /**
+     * @param path cells from the entrance to the exit (row * width + column)
+     * @return the path drawn as in a result file
+     */
+    static String render(int[] path, int height, int width) {
+        char[][] lines = new char[height][width];
+        for (char[] line : lines)
+            Arrays.fill(line, OUT);
+        for (int step = 0; step < path.length; step++) {
+            int cell = path[step];
+            char symbol = EXIT;
+            if (step + 1 < path.length) {
+                int next = path[step + 1];
+                for (int move = 0; move < MOVES.length(); move++)
+                    if (next == cell + ROW_STEPS[move] * width + COLUMN_STEPS[move])
+                        symbol = MOVES.charAt(move);
+            }
+            lines[cell / width][cell % width] = symbol;
+        }
+        StringBuilder text = new StringBuilder();
+        for (char[] line : lines)
+            text.append(line).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * @return the index of the move in {@link #MOVES}, {@link #EXIT_VALUE} for the exit, {@link GridReader#EMPTY} out of the path
+     */
+    protected int cellValue(GridReader grid, int row, int column) {
+        char symbol = grid.charAt(row, column);
+        if (symbol == OUT)
+            return GridReader.EMPTY;
+        if (symbol == EXIT)
+            return EXIT_VALUE;
+        int move = MOVES.indexOf(symbol);
+        return move >= 0 ? move : BAD_VALUE;
+    }
+
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        for (int row = 0; row < values.length; row++)
+            for (int column = 0; column < values[row].length; column++)
+                if (values[row][column] == BAD_VALUE)
+                    errors.add("Not a move (" + MOVES + "), '" + EXIT + "' or '" + OUT + "': " + cellName(row, column));
+    }
+
+    // -5 because .json
+    protected Function<String, String> sourceBaseName() {
+        return src -> subString(src, -5);
+    }
+
+    /**
+     * Follow the moves from the entrance: they must lead to the exit without leaving the grid nor crossing a cell twice,
+     * the crossed values adding up to the total, and no other cell may be drawn
+     */
+    protected List<String> compareData(Grid grid, Integer[][] results) {
+        List<String> errors = new ArrayList<>();
+        if (results.length != grid.height || Arrays.stream(results).anyMatch(row -> row.length != grid.width)) {
+            errors.add("Not the size of the source grid");
+            return errors;
+        }
+
+        boolean[] crossed = new boolean[grid.values.length];
+        int row = 0;
+        int column = 0;
+        int sum = 0;
+        while (true) {
+            int move = results[row][column];
+            if (move == GridReader.EMPTY || move == BAD_VALUE) {
+                errors.add("The path stops out of the exit: " + cellName(row, column));
+                break;
+            }
+            crossed[row * grid.width + column] = true;
+            sum += grid.values[row * grid.width + column];
+            if (move == EXIT_VALUE)
+                break;
+            row += ROW_STEPS[move];
+            column += COLUMN_STEPS[move];
+            if (row < 0 || row >= grid.height || column < 0 || column >= grid.width) {
+                errors.add("The path leaves the grid from: " + cellName(row - ROW_STEPS[move], column - COLUMN_STEPS[move]));
+                break;
+            }
+            if (crossed[row * grid.width + column]) {
+                errors.add("The path crosses the same cell twice: " + cellName(row, column));
+                break;
+            }
+        }
+
+        if (errors.isEmpty()) {
+            if (row != grid.height - 1 || column != grid.width - 1)
+                errors.add("The path ends out of the exit: " + cellName(row, column));
+            if (sum != grid.total)
+                errors.add("Invalid sum computed along the path (found=" + sum + " v. expected=" + grid.total + ")");
+            for (int cell = 0; cell < crossed.length; cell++)
+                if (!crossed[cell] && results[cell / grid.width][cell % grid.width] != GridReader.EMPTY)
+                    errors.add("Not on the path: " + cellName(cell / grid.width, cell % grid.width));
+        }
+        return errors;
+    }
+
+}
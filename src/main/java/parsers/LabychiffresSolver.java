@@ -0,0 +1,315 @@
+package parsers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solver of Labychiffres grids (at most {@value Labychiffres#MAX_CELLS} cells), counting the paths from the entrance
+ * to the exit whose values add up to the total, up to 2 of them.
+ * The paths are counted without being enumerated: the cells are processed row by row (column by column when the grid
+ * is wider than high, so that a row has 8 cells at most), and between two cells a state tells how the pieces of path
+ * drawn so far cross the frontier of the processed cells. Each frontier edge takes 2 bits: no piece, first or second
+ * end of a piece (pieces never cross, so their ends nest like parentheses), or end of the piece from the entrance.
+ * A state keeps the sums of its pieces as two bitsets (bit = 1L << sum, up to the total): reached once, reached twice or more.
+ * The states before some cells are kept to rebuild the first path, backwards from the exit.
+ * Run as a program, it solves the labychiffres/ sources and writes the missing results to _computed.txt files.
+ */
+final class LabychiffresSolver {
+
+    static final int UNDETERMINED = -1;
+    static final int MAX_STORED = 1 << 22; // longs of the bitsets kept to rebuild the path (32 MB), a larger total is undetermined
+
+    private static final int NONE = 0;
+    private static final int FIRST = 1;
+    private static final int SECOND = 2;
+    private static final int ENTRANCE = 3;
+
+    private final int width;
+    private final int[] values; // processed cell (row * width + column) to its value
+    private final int[] cells; // processed cell to the cell of the grid
+    private final int total;
+    private final int words; // longs of a bitset of sums
+
+    private final int segment; // cells between two checkpoints
+
+    // states before every segment-th cell to their sums reached once: the states in between are computed again for the path
+    private final List<Map<Integer, long[]>> checkpoints = new ArrayList<>();
+    private final int[] nextStates = new int[2];
+    private final boolean[] nextUsed = new boolean[2];
+    private final long[] shifted;
+    private int count;
+    private int[] solution;
+
+    /**
+     * @param grid content of a source file without errors
+     */
+    LabychiffresSolver(Labychiffres.Grid grid) {
+        boolean transposed = grid.width > grid.height;
+        this.width = transposed ? grid.height : grid.width;
+        this.values = new int[grid.values.length];
+        this.cells = new int[grid.values.length];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = transposed ? cell % width * grid.width + cell / width : cell;
+            values[cell] = grid.values[cells[cell]];
+        }
+        this.total = grid.total;
+        this.words = (total >>> 6) + 1;
+        this.segment = (int) Math.ceil(Math.sqrt(values.length));
+        this.shifted = new long[2 * words];
+    }
+
+    public static void main(String[] args) {
+        String pathName = args.length > 0 ? args[0] : new Labychiffres().pathName();
+        ComputedFiles.solveAll(pathName, ".json", fileName -> {
+            CommonChecker.BiSupplier<List<String>, Labychiffres.Grid> source = Labychiffres.readFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            Labychiffres.Grid grid = source.getTwo();
+            LabychiffresSolver solver = new LabychiffresSolver(grid);
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.ofText(solutions, solutions > 0 ? Labychiffres.render(solver.solution(), grid.height, grid.width) : null);
+        });
+    }
+
+    /**
+     * @param limit the number of solutions reported is at most this one (and at most 2)
+     * @return the number of solutions, or {@link #UNDETERMINED} when the states would need more than {@value #MAX_STORED} longs
+     */
+    int countSolutions(int limit) {
+        solution = null;
+        checkpoints.clear();
+        count = 0;
+        Map<Integer, long[]> layer = new HashMap<>();
+        if ((long) words * (values.length / segment + 1 + segment) > MAX_STORED)
+            return UNDETERMINED;
+        long[] empty = new long[2 * words];
+        empty[0] = 1L; // no cell yet, sum 0
+        layer.put(NONE, empty);
+
+        long checkpointed = 0;
+        int maxStates = 1;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (cell % segment == 0) {
+                Map<Integer, long[]> checkpoint = new HashMap<>();
+                layer.forEach((state, sums) -> checkpoint.put(state, Arrays.copyOf(sums, words)));
+                checkpoints.add(checkpoint);
+                checkpointed += (long) layer.size() * words;
+            }
+            layer = next(layer, cell);
+            maxStates = Math.max(maxStates, layer.size());
+            if (checkpointed + (long) maxStates * words * segment > MAX_STORED)
+                return UNDETERMINED;
+        }
+
+        long[] paths = layer.get(NONE);
+        count = paths == null || (paths[total >>> 6] & 1L << total) == 0 ? 0 : (paths[words + (total >>> 6)] & 1L << total) == 0 ? 1 : 2;
+        return Math.min(count, limit);
+    }
+
+    /**
+     * @return the cells of the first path found by {@link #countSolutions(int)} from the entrance to the exit
+     * (row * width + column), null if there is none
+     */
+    int[] solution() {
+        if (solution == null && count > 0)
+            solution = rebuild();
+        return solution;
+    }
+
+    /**
+     * @param layer states before the cell to their sums reached once then at least twice (the latter may be missing)
+     * @return states after the cell to their sums
+     */
+    private Map<Integer, long[]> next(Map<Integer, long[]> layer, int cell) {
+        Map<Integer, long[]> next = new HashMap<>();
+        for (Map.Entry<Integer, long[]> entry : layer.entrySet()) {
+            int options = options(entry.getKey(), cell);
+            for (int option = 0; option < options; option++) {
+                if (!shift(entry.getValue(), nextUsed[option] ? values[cell] : 0, shifted))
+                    continue;
+                long[] sums = next.get(nextState(option, cell));
+                if (sums == null)
+                    next.put(nextState(option, cell), shifted.clone());
+                else
+                    for (int word = 0; word < words; word++) {
+                        sums[words + word] |= shifted[words + word] | sums[word] & shifted[word];
+                        sums[word] |= shifted[word];
+                    }
+            }
+        }
+        return next;
+    }
+
+    private static int plug(int state, int edge) {
+        return state >>> 2 * edge & 3;
+    }
+
+    private static int withPlug(int state, int edge, int plug) {
+        return state & ~(3 << 2 * edge) | plug << 2 * edge;
+    }
+
+    /**
+     * @return the frontier edge holding the other end of the piece ending at the given edge
+     */
+    private static int otherEnd(int state, int edge) {
+        int step = plug(state, edge) == FIRST ? 1 : -1;
+        int depth = 0;
+        for (int other = edge; ; other += step) {
+            if (plug(state, other) == FIRST)
+                depth++;
+            else if (plug(state, other) == SECOND)
+                depth--;
+            if (depth == 0)
+                return other;
+        }
+    }
+
+    /**
+     * The frontier edges of the state are the bottom edges of the processed cells of the current row on the left of the cell,
+     * its left and top edges, and the bottom edges of the cells of the previous row on its right
+     * @return the number of ways to go on (with the cell or not), written in nextStates and nextUsed
+     */
+    private int options(int state, int cell) {
+        int column = cell % width;
+        boolean right = column < width - 1;
+        boolean down = cell + width < values.length;
+        int left = plug(state, column);
+        int up = plug(state, column + 1);
+        int others = withPlug(withPlug(state, column, NONE), column + 1, NONE);
+        int options = 0;
+
+        if (cell == 0) {
+            if (down)
+                options = option(options, withPlug(state, column, ENTRANCE), true);
+            if (right)
+                options = option(options, withPlug(state, column + 1, ENTRANCE), true);
+        } else if (cell == values.length - 1) {
+            if (others == NONE && (left == ENTRANCE) != (up == ENTRANCE))
+                options = option(options, NONE, true);
+        } else if (left == NONE && up == NONE) {
+            options = option(options, state, false);
+            if (down && right)
+                options = option(options, withPlug(withPlug(state, column, FIRST), column + 1, SECOND), true);
+        } else if (left == NONE || up == NONE) {
+            if (down)
+                options = option(options, withPlug(others, column, left | up), true);
+            if (right)
+                options = option(options, withPlug(others, column + 1, left | up), true);
+        } else if (left == FIRST && up == SECOND || left == ENTRANCE && up == ENTRANCE)
+            return 0; // a loop
+        else if (left == SECOND && up == FIRST)
+            options = option(options, others, true);
+        else if (left == FIRST && up == FIRST || left == ENTRANCE)
+            options = option(options, withPlug(others, otherEnd(state, column + 1), left), true);
+        else
+            options = option(options, withPlug(others, otherEnd(state, column), up), true);
+        return options;
+    }
+
+    private int option(int options, int nextState, boolean used) {
+        nextStates[options] = nextState;
+        nextUsed[options] = used;
+        return options + 1;
+    }
+
+    /**
+     * @return the state after the cell, shifted at the end of a row for the next one
+     */
+    private int nextState(int option, int cell) {
+        return cell % width == width - 1 && cell < values.length - 1 ? nextStates[option] << 2 : nextStates[option];
+    }
+
+    /**
+     * @param sums sums reached once then at least twice (the latter may be missing)
+     * @param shifted receives the sums plus the value, without the ones above the total
+     * @return false when no sum is left
+     */
+    private boolean shift(long[] sums, int value, long[] shifted) {
+        int wordShift = value >>> 6;
+        int bitShift = value & 63;
+        long last = (total & 63) == 63 ? -1L : (1L << (total & 63) + 1) - 1;
+        long any = 0;
+        Arrays.fill(shifted, 0, Math.min(wordShift, words), 0);
+        Arrays.fill(shifted, words, words + Math.min(wordShift, words), 0);
+        for (int word = wordShift; word < words; word++) {
+            int from = word - wordShift;
+            long once = sums[from] << bitShift;
+            long twice = sums.length == words ? 0 : sums[words + from] << bitShift;
+            if (bitShift != 0 && from > 0) {
+                once |= sums[from - 1] >>> 64 - bitShift;
+                if (sums.length > words)
+                    twice |= sums[words + from - 1] >>> 64 - bitShift;
+            }
+            if (word == words - 1) {
+                once &= last;
+                twice &= last;
+            }
+            shifted[word] = once;
+            shifted[words + word] = twice;
+            any |= once;
+        }
+        return any != 0;
+    }
+
+    /**
+     * Go back from the exit through states having the right sums, segment by segment from the last checkpoint,
+     * then follow the edges from the entrance
+     */
+    private int[] rebuild() {
+        boolean[] right = new boolean[values.length];
+        boolean[] down = new boolean[values.length];
+        int state = NONE;
+        int sum = total;
+        for (int first = (values.length - 1) / segment * segment; first >= 0; first -= segment) {
+            int end = Math.min(first + segment, values.length);
+            List<Map<Integer, long[]>> layers = new ArrayList<>();
+            layers.add(checkpoints.get(first / segment));
+            for (int cell = first; cell < end - 1; cell++) {
+                Map<Integer, long[]> next = next(layers.get(layers.size() - 1), cell);
+                next.replaceAll((nextState, sums) -> Arrays.copyOf(sums, words));
+                layers.add(next);
+            }
+            for (int cell = end - 1; cell >= first; cell--) {
+                search:
+                for (Map.Entry<Integer, long[]> entry : layers.get(cell - first).entrySet()) {
+                    int options = options(entry.getKey(), cell);
+                    for (int option = 0; option < options; option++) {
+                        int previous = sum - (nextUsed[option] ? values[cell] : 0);
+                        if (nextState(option, cell) == state && previous >= 0 && (entry.getValue()[previous >>> 6] & 1L << previous) != 0) {
+                            down[cell] = plug(nextStates[option], cell % width) != NONE;
+                            right[cell] = plug(nextStates[option], cell % width + 1) != NONE;
+                            state = entry.getKey();
+                            sum = previous;
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Integer> path = new ArrayList<>();
+        int previous = -1;
+        int cell = 0;
+        path.add(cells[cell]);
+        while (cell != values.length - 1) {
+            int column = cell % width;
+            int next;
+            if (right[cell] && cell + 1 != previous)
+                next = cell + 1;
+            else if (down[cell] && cell + width != previous)
+                next = cell + width;
+            else if (column > 0 && right[cell - 1] && cell - 1 != previous)
+                next = cell - 1;
+            else
+                next = cell - width;
+            previous = cell;
+            cell = next;
+            path.add(cells[cell]);
+        }
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+}
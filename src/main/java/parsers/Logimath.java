@@ -0,0 +1,242 @@
+package parsers;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Logimath: a square grid where each row and each column holds the values 0, 1, 2, 4 and 8 (the first ones only
+ * for a smaller grid), with the sums of the cells around each corner of the cells given.
+ * A source is a JSON file ({"grid": [[4, 1, 9, 10], [12, 13, 2, 11, 16, 6], ...]}) holding these sums row by row
+ * for a grid of size n: n - 1 sums on the edges for the first and the last rows (the corners of the grid touch
+ * a single cell and are not given), n + 1 sums for the other rows. A result file writes the value of each cell.
+ * The sums are read with the streaming API of json-simple, straight into int arrays.
+ */
+public class Logimath extends DifferentFormat<Logimath.Grid> {
+
+    static final int[] VALUES = {0, 1, 2, 4, 8}; // one digit each, for the result files
+    static final int MIN_SIZE = 2;
+    static final int MAX_SIZE = VALUES.length;
+
+    private static final String GRID = "grid";
+
+    public Logimath() {
+        this("logimath/");
+    }
+
+    Logimath(String pathName) {
+        super(pathName);
+    }
+
+    public static void main(String[] args) {
+        new Logimath().run();
+    }
+
+    /**
+     * Content of a source file
+     */
+    static final class Grid {
+        final int size;
+        final int[] sums; // sum around each corner of the cells (row * (size + 1) + column), GridReader.EMPTY when not given
+
+        private Grid(int size, int[] sums) {
+            this.size = size;
+            this.sums = sums;
+        }
+    }
+
+    protected BiSupplier<List<String>, Grid> checkSourceFile(String fileName) {
+        BiSupplier<List<String>, Grid> source = readFile(fileName);
+        if (source.getOne().isEmpty())
+            checkSolutions(source.getTwo(), source.getOne());
+        return source;
+    }
+
+    /**
+     * Check the content of a source file, without solving it
+     * @return composite: the list of errors found and the source data (null when the file cannot be read)
+     */
+    static BiSupplier<List<String>, Grid> readFile(String fileName) {
+        return readJsonFile(fileName, Logimath::read);
+    }
+
+    /**
+     * @throws ParseException when the content is not valid JSON, when a sum is not an integer or when the grid is missing
+     */
+    private static Grid read(Reader reader, List<String> errors) throws IOException, ParseException {
+        Handler handler = new Handler();
+        new JSONParser().parse(reader, handler);
+        if (handler.rows == null)
+            throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN, "missing '" + GRID + "'");
+        int[][] rows = Arrays.copyOf(handler.rows, handler.rowCount);
+
+        int size = rows.length - 1;
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            errors.add("Bad JSON content: not a grid size from " + MIN_SIZE + " to " + MAX_SIZE + " (got " + rows.length + " rows of sums)");
+            return null;
+        }
+
+        int[] sums = new int[(size + 1) * (size + 1)];
+        Arrays.fill(sums, GridReader.EMPTY);
+        for (int row = 0; row <= size; row++) {
+            boolean edge = row == 0 || row == size;
+            int expected = edge ? size - 1 : size + 1;
+            if (rows[row].length != expected) {
+                errors.add("Bad JSON content: must contain " + expected + " sums in the row #" + (row + 1) + " (got " + rows[row].length + ")");
+                continue;
+            }
+            for (int i = 0; i < expected; i++) {
+                int column = edge ? i + 1 : i;
+                int sum = rows[row][i];
+                if (sum < 0)
+                    errors.add("Not a positive or zero sum (found=" + sum + "): " + cellName(row, column));
+                sums[row * (size + 1) + column] = sum;
+            }
+        }
+
+        return new Grid(size, sums);
+    }
+
+    /**
+     * Rows of the "grid" array, each one read straight into an int array
+     */
+    private static final class Handler implements ContentHandler {
+        private int[][] rows;
+        private int rowCount;
+
+        private int objectDepth;
+        private int arrayDepth; // inside the grid: 1 for the grid, 2 for a row
+        private boolean inGrid;
+
+        private int[] values = new int[8];
+        private int length;
+
+        public void startJSON() {
+        }
+
+        public void endJSON() {
+        }
+
+        public boolean startObject() {
+            objectDepth++;
+            return true;
+        }
+
+        public boolean endObject() {
+            objectDepth--;
+            return true;
+        }
+
+        public boolean startObjectEntry(String key) {
+            if (objectDepth == 1 && GRID.equals(key)) {
+                inGrid = true;
+                rows = new int[8][];
+            }
+            return true;
+        }
+
+        public boolean endObjectEntry() {
+            if (objectDepth == 1)
+                inGrid = false;
+            return true;
+        }
+
+        public boolean startArray() {
+            if (inGrid && ++arrayDepth == 2)
+                length = 0;
+            return true;
+        }
+
+        public boolean endArray() {
+            if (inGrid && arrayDepth-- == 2) {
+                if (rowCount == rows.length)
+                    rows = Arrays.copyOf(rows, rowCount * 2);
+                rows[rowCount++] = Arrays.copyOf(values, length);
+            }
+            return true;
+        }
+
+        public boolean primitive(Object value) throws ParseException {
+            if (!inGrid)
+                return true;
+            if (arrayDepth != 2 || !(value instanceof Long))
+                throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN, value);
+            if (length == values.length)
+                values = Arrays.copyOf(values, length * 2);
+            values[length++] = ((Long) value).intValue();
+            return true;
+        }
+    }
+
+    private static void checkSolutions(Grid grid, List<String> errors) {
+        checkUniqueSolution(new LogimathSolver(grid).countSolutions(2), "this grid", errors);
+    }
+
+    static String cellName(int row, int column) {
+        return "[" + (row + 1) + "," + (column + 1) + "]";
+    }
+
+    /**
+     * Each row and each column holds the values of its size once
+     */
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        int size = values.length;
+        if (size < MIN_SIZE || size > MAX_SIZE || values[0].length != size) {
+            errors.add("Not a square grid of size from " + MIN_SIZE + " to " + MAX_SIZE);
+            return;
+        }
+        int all = 0;
+        for (int i = 0; i < size; i++)
+            all |= 1 << VALUES[i];
+        for (int line = 0; line < size; line++) {
+            int rowFound = 0;
+            int columnFound = 0;
+            for (int i = 0; i < size; i++) {
+                rowFound |= 1 << values[line][i];
+                columnFound |= 1 << values[i][line];
+            }
+            if (rowFound != all)
+                errors.add("Not the values " + Arrays.toString(Arrays.copyOf(VALUES, size)) + " in the row #" + (line + 1));
+            if (columnFound != all)
+                errors.add("Not the values " + Arrays.toString(Arrays.copyOf(VALUES, size)) + " in the column #" + (line + 1));
+        }
+    }
+
+    // -5 because .json
+    protected Function<String, String> sourceBaseName() {
+        return src -> subString(src, -5);
+    }
+
+    /**
+     * Every given sum is the sum of the cells around its corner
+     */
+    protected List<String> compareData(Grid grid, Integer[][] results) {
+        List<String> errors = new ArrayList<>();
+        int size = grid.size;
+        if (results.length != size || Arrays.stream(results).anyMatch(row -> row.length != size)) {
+            errors.add("Not the size of the source grid");
+            return errors;
+        }
+        for (int corner = 0; corner < grid.sums.length; corner++) {
+            if (grid.sums[corner] == GridReader.EMPTY)
+                continue;
+            int cornerRow = corner / (size + 1);
+            int cornerColumn = corner % (size + 1);
+            int sum = 0;
+            for (int row = Math.max(cornerRow - 1, 0); row <= Math.min(cornerRow, size - 1); row++)
+                for (int column = Math.max(cornerColumn - 1, 0); column <= Math.min(cornerColumn, size - 1); column++)
+                    sum += results[row][column];
+            if (sum != grid.sums[corner])
+                errors.add("Sum not kept: " + cellName(cornerRow, cornerColumn) + " (found=" + sum + " v. expected=" + grid.sums[corner] + ")");
+        }
+        return errors;
+    }
+
+}
@@ -0,0 +1,148 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of Logimath grids, counting solutions up to a limit. The cells are filled in reading order with the values
+ * still free in their row and in their column (bit = 1 << index in {@link Logimath#VALUES}). A cell is the last one
+ * of the corner above on its left: when this corner has a sum, the value of the cell is forced. After each value,
+ * the partial sum of every corner around the cell must still reach its sum with the values of the 8 at most
+ * for its missing cells, without exceeding it.
+ * Once warm, each logimath/ source is solved in less than 10 microseconds.
+ * Run as a program, it solves the logimath/ sources and writes the missing results to _computed.txt files
+ * (the times it prints include reading the JSON files, and the class loading for the first ones).
+ */
+final class LogimathSolver {
+
+    private static final int NONE = -1;
+    private static final int[] VALUE_INDEXES = new int[Logimath.VALUES[Logimath.VALUES.length - 1] + 1]; // NONE when not a value
+
+    static {
+        Arrays.fill(VALUE_INDEXES, NONE);
+        for (int index = 0; index < Logimath.VALUES.length; index++)
+            VALUE_INDEXES[Logimath.VALUES[index]] = index;
+    }
+
+    private final int size;
+    private final int corners; // corners per row: size + 1
+    private final int[] sums;
+    private final int[] cornerCells; // number of cells around each corner
+    private final int maxValue;
+
+    // during the search
+    private final int[] values;
+    private final int[] partial; // sum of the filled cells around each corner
+    private final int[] filled; // number of filled cells around each corner
+    private final int[] rowFree; // values still free in each row (bit = 1 << index)
+    private final int[] columnFree;
+
+    private int limit;
+    private int count;
+    private int[] solution;
+
+    /**
+     * @param grid content of a source file without errors
+     */
+    LogimathSolver(Logimath.Grid grid) {
+        this.size = grid.size;
+        this.corners = size + 1;
+        this.sums = grid.sums;
+        this.cornerCells = new int[corners * corners];
+        for (int corner = 0; corner < cornerCells.length; corner++) {
+            int row = corner / corners;
+            int column = corner % corners;
+            cornerCells[corner] = (row == 0 || row == size ? 1 : 2) * (column == 0 || column == size ? 1 : 2);
+        }
+        this.maxValue = Logimath.VALUES[size - 1];
+        this.values = new int[size * size];
+        this.partial = new int[corners * corners];
+        this.filled = new int[corners * corners];
+        this.rowFree = new int[size];
+        this.columnFree = new int[size];
+    }
+
+    public static void main(String[] args) {
+        String pathName = args.length > 0 ? args[0] : new Logimath().pathName();
+        ComputedFiles.solveAll(pathName, ".json", fileName -> {
+            CommonChecker.BiSupplier<List<String>, Logimath.Grid> source = Logimath.readFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            LogimathSolver solver = new LogimathSolver(source.getTwo());
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), solver.size);
+        });
+    }
+
+    /**
+     * @param limit the search stops once this number of solutions is found
+     * @return the number of solutions, at most limit
+     */
+    int countSolutions(int limit) {
+        this.limit = limit;
+        this.count = 0;
+        this.solution = null;
+        Arrays.fill(partial, 0);
+        Arrays.fill(filled, 0);
+        Arrays.fill(rowFree, (1 << size) - 1);
+        Arrays.fill(columnFree, (1 << size) - 1);
+        search(0);
+        return count;
+    }
+
+    /**
+     * @return the first solution found by {@link #countSolutions(int)} (row * size + column), null if there is none
+     */
+    int[] solution() {
+        return solution;
+    }
+
+    private void search(int cell) {
+        if (cell == values.length) {
+            if (count++ == 0)
+                solution = values.clone();
+            return;
+        }
+
+        int row = cell / size;
+        int column = cell % size;
+        int candidates = rowFree[row] & columnFree[column];
+        int lastCorner = row * corners + column; // above on the left, complete with this cell
+        if (sums[lastCorner] != GridReader.EMPTY) {
+            int needed = sums[lastCorner] - partial[lastCorner];
+            int index = needed >= 0 && needed < VALUE_INDEXES.length ? VALUE_INDEXES[needed] : NONE;
+            candidates &= index == NONE ? 0 : 1 << index;
+        }
+
+        for (int bits = candidates; bits != 0 && count < limit; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            int value = Logimath.VALUES[index];
+            values[cell] = value;
+            rowFree[row] &= ~(1 << index);
+            columnFree[column] &= ~(1 << index);
+            if (place(lastCorner, value, 1))
+                search(cell + 1);
+            place(lastCorner, -value, -1);
+            rowFree[row] |= 1 << index;
+            columnFree[column] |= 1 << index;
+        }
+    }
+
+    /**
+     * Add a value to the 4 corners around a cell (or remove it)
+     * @param corner corner above on the left of the cell
+     * @return false when the sum of a corner cannot be reached anymore
+     */
+    private boolean place(int corner, int value, int step) {
+        boolean possible = true;
+        for (int around = corner; around <= corner + corners + 1; around += around == corner + 1 ? corners - 1 : 1) {
+            partial[around] += value;
+            filled[around] += step;
+            int sum = sums[around];
+            if (sum != GridReader.EMPTY && (partial[around] > sum || partial[around] + (cornerCells[around] - filled[around]) * maxValue < sum))
+                possible = false;
+        }
+        return possible;
+    }
+
+}
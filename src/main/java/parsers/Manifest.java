@@ -0,0 +1,229 @@
+package parsers;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content hashes and past check results of the files of a puzzle directory, persisted in target/manifest/
+ * so that a run only re-checks the source/result pairs where at least one side changed.
+ * The manifest is dropped when the checkers code changes, or when the {@value #FULL_RUN_PROPERTY} system property is set.
+ */
+final class Manifest {
+
+    static final String FULL_RUN_PROPERTY = "checker.full";
+
+    private static final String DIRECTORY = "target/manifest/";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String FILES = "files";
+    private static final String HASH = "hash";
+    private static final String PROBLEMS = "problems";
+    private static final String CROSS_ISSUES = "cross";
+    private static final String NOTES = "notes";
+
+    private final File file;
+    private final String fingerprint;
+    private final Map<String, JSONObject> previousEntries;
+    private final Map<String, String> currentHashes = new HashMap<>();
+    private final Map<String, JSONObject> currentEntries = new TreeMap<>();
+    private final Set<String> toCheck = new HashSet<>();
+
+    private Manifest(File file, String fingerprint, Map<String, JSONObject> previousEntries) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.previousEntries = previousEntries;
+    }
+
+    /**
+     * @param pathName the puzzle directory (e.g. "sudoku/")
+     * @param checker the checker class, whose code is part of the manifest validity
+     * @return the manifest of the previous run, or an empty one for a full run
+     */
+    static Manifest load(String pathName, Class<?> checker) {
+        return load(pathName, checker, Collections.emptyList());
+    }
+
+    /**
+     * @param dependencies files out of the directory used by the checker (e.g. a word list), whose content is part of the manifest validity
+     */
+    static Manifest load(String pathName, Class<?> checker, List<String> dependencies) {
+        File file = new File(DIRECTORY + new File(pathName).getName() + ".json");
+        String fingerprint = fingerprint(checker);
+        if (fingerprint != null && !dependencies.isEmpty())
+            fingerprint = digest(fingerprint.getBytes(), dependencies.stream()
+                    .map(dependency -> new File(dependency).exists() ? hash(dependency) : "missing " + dependency)
+                    .collect(Collectors.joining(",")).getBytes());
+        Map<String, JSONObject> previousEntries = new HashMap<>();
+
+        if (!Boolean.getBoolean(FULL_RUN_PROPERTY) && fingerprint != null && file.exists()) {
+            try (Reader reader = new FileReader(file)) {
+                JSONObject root = (JSONObject) new JSONParser().parse(reader);
+                if (fingerprint.equals(root.get(FINGERPRINT)))
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) root.get(FILES)).entrySet())
+                        previousEntries.put((String) entry.getKey(), (JSONObject) entry.getValue());
+            } catch (IOException | ParseException | ClassCastException e) {
+                System.err.println("Ignoring unreadable manifest " + file + ": " + e.getMessage());
+            }
+        }
+
+        return new Manifest(file, fingerprint, previousEntries);
+    }
+
+    /**
+     * Hash the given files and find the ones to check again: a file is checked again when itself
+     * or another file with the same base name (its source or result counterpart) changed, appeared or disappeared
+     * @param fileNames all the files of the directory which are checked
+     * @param baseName base name shared by a source file and its result file
+     * @return the files which must be checked again (the others can be taken from this manifest)
+     */
+    Set<String> filesToCheck(List<String> fileNames, Function<String, String> baseName) {
+        Set<String> changedBaseNames = new HashSet<>();
+        fileNames.forEach(fileName -> {
+            String hash = hash(fileName);
+            currentHashes.put(fileName, hash);
+            JSONObject previous = previousEntries.get(fileName);
+            if (previous == null || !hash.equals(previous.get(HASH)))
+                changedBaseNames.add(baseName.apply(fileName));
+        });
+        previousEntries.keySet().stream()
+                .filter(fileName -> !currentHashes.containsKey(fileName))
+                .map(baseName)
+                .forEach(changedBaseNames::add);
+
+        fileNames.stream()
+                .filter(fileName -> changedBaseNames.contains(baseName.apply(fileName)))
+                .forEach(toCheck::add);
+        fileNames.stream()
+                .filter(fileName -> !toCheck.contains(fileName))
+                .forEach(fileName -> currentEntries.put(fileName, previousEntries.get(fileName)));
+        return toCheck;
+    }
+
+    boolean isReused(String fileName) {
+        return !toCheck.contains(fileName);
+    }
+
+    List<String> problems(String fileName) {
+        return readList(fileName, PROBLEMS);
+    }
+
+    List<String> crossIssues(String fileName) {
+        return readList(fileName, CROSS_ISSUES);
+    }
+
+    /**
+     * @return the information lines (not problems) reported for the file by the previous run
+     */
+    List<String> notes(String fileName) {
+        return readList(fileName, NOTES);
+    }
+
+    void recordProblems(String fileName, List<String> problems) {
+        writeList(fileName, PROBLEMS, problems);
+    }
+
+    void recordCrossIssues(String fileName, List<String> crossIssues) {
+        writeList(fileName, CROSS_ISSUES, crossIssues);
+    }
+
+    void recordNotes(String fileName, List<String> notes) {
+        writeList(fileName, NOTES, notes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> readList(String fileName, String key) {
+        JSONArray values = (JSONArray) currentEntries.get(fileName).get(key);
+        return values == null ? Collections.emptyList() : (List<String>) new ArrayList<String>(values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeList(String fileName, String key, List<String> values) {
+        JSONObject entry = currentEntries.computeIfAbsent(fileName, x -> new JSONObject());
+        entry.put(HASH, currentHashes.get(fileName));
+        JSONArray array = new JSONArray();
+        array.addAll(values);
+        entry.put(key, array);
+    }
+
+    /**
+     * Persist the hashes and results of the files checked during this run
+     */
+    @SuppressWarnings("unchecked")
+    void save() {
+        if (fingerprint == null)
+            return;
+        JSONObject files = new JSONObject();
+        files.putAll(currentEntries);
+        JSONObject root = new JSONObject();
+        root.put(FINGERPRINT, fingerprint);
+        root.put(FILES, files);
+
+        file.getParentFile().mkdirs();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(root.toJSONString());
+        } catch (IOException e) {
+            System.err.println("Cannot write manifest " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String hash(String fileName) {
+        try {
+            return digest(Files.readAllBytes(Paths.get(fileName)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String digest(byte[]... contents) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            for (byte[] content : contents)
+                messageDigest.update(content);
+            return new BigInteger(1, messageDigest.digest()).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return hash of the compiled classes next to the checker (directory or jar), null when not available
+     */
+    private static String fingerprint(Class<?> checker) {
+        CodeSource codeSource = checker.getProtectionDomain().getCodeSource();
+        if (codeSource == null)
+            return null;
+        try {
+            Path location = Paths.get(codeSource.getLocation().toURI());
+            if (!Files.isDirectory(location))
+                return digest(Files.readAllBytes(location));
+            List<Path> classFiles;
+            try (Stream<Path> paths = Files.walk(location)) {
+                classFiles = paths.filter(path -> path.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+            }
+            List<byte[]> contents = new ArrayList<>();
+            for (Path classFile : classFiles) {
+                contents.add(location.relativize(classFile).toString().getBytes());
+                contents.add(Files.readAllBytes(classFile));
+            }
+            return digest(contents.toArray(new byte[0][]));
+        } catch (IOException | URISyntaxException e) {
+            return null;
+        }
+    }
+
+}
@@ -3,8 +3,8 @@ package parsers;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -14,99 +14,118 @@ public class Matoku extends AreaBased {
     private static final String intercells = "separator.inter-cells";
     private static final String keyvalues = "separator.key-values";
 
+    public Matoku() {
+        this("matoku/");
+    }
+
     public Matoku(String pathName) {
         super(pathName, propertiesFileName);
     }
 
     public static void main(String[] args) {
-        new Matoku("matoku/").run();
+        new Matoku().run();
     }
 
-    protected List<String> extractCells(List<String> rules) {
-        return rules.stream()
-                .map(line -> Arrays.stream(line.split(properties.getProperty(keyvalues))[0].split(properties.getProperty(intercells))))
-                .flatMap(Function.identity())
-                .collect(Collectors.toList());
+    /**
+     * A cage: the operation applied to the values of its cells must give the expected value
+     */
+    static final class Cage extends Area {
+        final Operation operation; // null when the rule is not valid
+        final int value;
+
+        private Cage(String rule, String[] cellIds, Operation operation, int value) {
+            super(rule, cellIds);
+            this.operation = operation;
+            this.value = value;
+        }
+
+        /**
+         * @return the operation applied to the values of the cells (the value itself for a single cell)
+         */
+        int evaluate(int[] values) {
+            if (cells.length == 1)
+                return values[cells[0]];
+            int result = operation.base;
+            for (int cell : cells)
+                result = operation.accumulator.applyAsInt(result, values[cell]);
+            return result;
+        }
+
+        protected void checkFilling(int[] values, List<String> errors) {
+            if (operation == null)
+                return; // already reported by the source check
+
+            int foundValue = evaluate(values);
+            if(foundValue != value)
+                errors.add("Invalid area computed: "+rule+" (found="+foundValue+" v. expected="+value+")");
+        }
     }
 
-    protected void processSourceData(List<String> rules, List<String> errors) {
-        rules.forEach(rule -> {
-            String[] split = rule.split(properties.getProperty(keyvalues));
-            String[] operands = split[0].split(properties.getProperty(intercells));
-            try {
-                Operation operation = Operation.ofSymbol(split[1].substring(0, 1));
-                Integer.parseInt(split[1].substring(1)); // for potential exception
-
-                if(operands.length == 1) {
-                    if (operation != Operation.EQUAL)
-                        throw new RuntimeException("Bad config: " + rule);
-                }
-            } catch (Exception e) {
-                errors.add(e.getMessage());
+    protected Area compileArea(String rule, List<String> errors) {
+        String[] split = rule.split(properties.getProperty(keyvalues));
+        String[] operands = split[0].split(properties.getProperty(intercells));
+        Operation operation = null;
+        int value = 0;
+        try {
+            Operation symbolOperation = Operation.ofSymbol(split[1].charAt(0));
+            value = Integer.parseInt(split[1].substring(1));
+
+            if(operands.length == 1) {
+                if (symbolOperation != Operation.EQUAL)
+                    throw new RuntimeException("Bad config: " + rule);
             }
-        });
+            operation = symbolOperation;
+        } catch (Exception e) {
+            errors.add(e.getMessage());
+        }
+        return new Cage(rule, operands, operation, value);
     }
 
-    protected void extraChecksOnResults(List<String> lines, Integer[][] values, List<String> errors) {
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        int size = values.length;
         Arrays.stream(values).forEach(row -> {
             Map<Integer, List<Integer>> collect = Arrays.stream(row).collect(Collectors.groupingBy(Function.identity()));
-            IntStream.rangeClosed(1, 5).forEach(value -> {
+            IntStream.rangeClosed(1, size).forEach(value -> {
                 if(collect.get(value) == null || collect.get(value).size() > 1)
                     errors.add("Invalid row: missing or too many '"+value+"' in it: "+ Arrays.toString(row));
             });
         });
-        IntStream.range(0, values[0].length).mapToObj(colNumber -> values[colNumber]).forEach(column -> {
+        IntStream.range(0, size == 0 ? 0 : values[0].length).mapToObj(colNumber -> Arrays.stream(values).map(row -> row[colNumber]).toArray(Integer[]::new)).forEach(column -> {
             Map<Integer, List<Integer>> collect = Arrays.stream(column).collect(Collectors.groupingBy(Function.identity()));
-            IntStream.rangeClosed(1, 5).forEach(value -> {
+            IntStream.rangeClosed(1, size).forEach(value -> {
                 if(collect.get(value) == null || collect.get(value).size() > 1)
                     errors.add("Invalid column: missing or too many '"+value+"' in it: "+ Arrays.toString(column));
             });
         });
     }
 
-    protected void specificCheckOnAreaFilling(String rule, Integer[][] results, List<String> errors) {
-        String[] split = rule.split(properties.getProperty(keyvalues));
-        String[] operands = split[0].split(properties.getProperty(intercells));
-        Operation operation = Operation.ofSymbol(split[1].substring(0, 1));
-        int value = Integer.parseInt(split[1].substring(1));
+    enum Operation {
+        PLUS('+', 0, Integer::sum), MINUS('-', 0, (one, two) -> Math.abs(one - two)), MULTIPLY('x', 1, (one, two) -> one * two),
+        DIVIDE('/', 1, (one, two) -> Math.min(one, two) == 0 ? 0 : Math.max(one, two) / Math.min(one, two)),
+        EQUAL('~', 0, (one, two) -> one);
 
-        Integer foundValue;
+        private static final Operation[] BY_SYMBOL = new Operation[128];
 
-        if(operands.length == 1) {
-            if (operation != Operation.EQUAL)
-                throw new RuntimeException("Bad config: " + rule);
-            String cellId = operands[0];
-            foundValue = results[findRowNumber.apply(cellId)][findColumnNumber.apply(cellId)];
+        static {
+            for (Operation operation : values())
+                BY_SYMBOL[operation.symbol] = operation;
         }
-        else {
-            foundValue = Arrays.stream(operands)
-                    .map(cellId -> results[findRowNumber.apply(cellId)][findColumnNumber.apply(cellId)])
-                    .reduce(operation.base, operation.accumulator);
-        }
-
-        if(!foundValue.equals(value))
-            errors.add("Invalid area computed: "+rule+" (found="+foundValue+" v. expected="+value+")");
-    }
-
-    private enum Operation {
-        PLUS("+", 0, Integer::sum), MINUS("-", 0, (one, two) -> Math.abs(one - two)), MULTIPLY("x", 1, (one, two) -> one * two), DIVIDE("/", 1, (one, two) -> Math.max(one, two) / Math.min(one, two)),
-        EQUAL("~", 0, (one, two) -> one);
 
-        final String symbol;
-        private final Integer base;
-        private final BinaryOperator<Integer> accumulator;
+        final char symbol;
+        final int base;
+        final IntBinaryOperator accumulator;
 
-        Operation(String symbol, Integer base, BinaryOperator<Integer> accumulator) {
+        Operation(char symbol, int base, IntBinaryOperator accumulator) {
             this.symbol = symbol;
             this.base = base;
             this.accumulator = accumulator;
         }
 
-        static Operation ofSymbol(String symbol) {
-            return Arrays.stream(Operation.values())
-                    .filter(operation -> operation.symbol.equals(symbol))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Unknown symbol: '"+symbol+"'"));
+        static Operation ofSymbol(char symbol) {
+            Operation operation = symbol < BY_SYMBOL.length ? BY_SYMBOL[symbol] : null;
+            if (operation == null)
+                throw new RuntimeException("Unknown symbol: '"+symbol+"'");
+            return operation;
         }
     }
 }
@@ -0,0 +1,179 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of Matoku grids (size from 1 to 9, values 1..size once in each row and each column), counting solutions up to a limit.
+ * The candidates of each cell are a bit mask (bit = 1 << value). Every cage gets once the list of the value tuples
+ * giving its expected value (with {@link Matoku.Cage#evaluate(int[])} semantics, distinct values on a same row or column):
+ * the propagation keeps the candidates supported by a tuple, with naked and hidden singles on rows and columns,
+ * before branching on the cell with the fewest candidates.
+ * Run as a program, it solves the matoku/ sources and writes the missing results to _computed.txt files.
+ */
+final class MatokuSolver extends CandidatesSolver {
+
+    static final int MAX_SIZE = 9;
+
+    private final int size;
+    private final int allValues;
+    private final Matoku.Cage[] cages;
+    private final int[][] tuples; // per cage, the valid values of its cells, one tuple after another
+    private final int[][] units; // rows then columns
+
+    // filled while enumerating the tuples of a cage
+    private int[] tupleBuffer;
+    private int tupleLength;
+
+    /**
+     * @param areas compiled cages of a source file without errors
+     * @throws IllegalArgumentException when the grid is not square or too big
+     */
+    MatokuSolver(AreaBased.Areas areas) {
+        if (areas.width != areas.height || areas.width > MAX_SIZE)
+            throw new IllegalArgumentException("Unsupported grid size: " + areas.height + "x" + areas.width);
+        this.size = areas.width;
+        this.allValues = ((1 << size) - 1) << 1;
+        this.cages = areas.areas.stream().map(area -> (Matoku.Cage) area).toArray(Matoku.Cage[]::new);
+        this.tuples = Arrays.stream(cages).map(this::validTuples).toArray(int[][]::new);
+        this.units = new int[2 * size][size];
+        for (int cell = 0; cell < size * size; cell++) {
+            units[cell / size][cell % size] = cell;
+            units[size + cell % size][cell / size] = cell;
+        }
+    }
+
+    public static void main(String[] args) {
+        Matoku matoku = new Matoku(args.length > 0 ? args[0] : "matoku/");
+        ComputedFiles.solveAll(matoku.pathName(), fileName -> {
+            CommonChecker.BiSupplier<List<String>, AreaBased.Areas> source = matoku.checkSourceFile(fileName);
+            if (!source.getOne().isEmpty())
+                return ComputedFiles.Solved.invalid(source.getOne());
+            MatokuSolver solver = new MatokuSolver(source.getTwo());
+            int solutions = solver.countSolutions(2);
+            return ComputedFiles.Solved.of(solutions, solver.solution(), solver.size);
+        });
+    }
+
+    private int[] validTuples(Matoku.Cage cage) {
+        tupleBuffer = new int[16 * cage.cells.length];
+        tupleLength = 0;
+        enumerate(cage, new int[cage.cells.length], 0, cage.cells.length == 1 ? 0 : cage.operation.base);
+        return Arrays.copyOf(tupleBuffer, tupleLength);
+    }
+
+    private void enumerate(Matoku.Cage cage, int[] values, int index, int accumulated) {
+        int[] cells = cage.cells;
+        if (index == cells.length) {
+            int result = cells.length == 1 ? values[0] : accumulated;
+            if (result != cage.value)
+                return;
+            if (tupleLength + values.length > tupleBuffer.length)
+                tupleBuffer = Arrays.copyOf(tupleBuffer, tupleBuffer.length * 2);
+            System.arraycopy(values, 0, tupleBuffer, tupleLength, values.length);
+            tupleLength += values.length;
+            return;
+        }
+        for (int value = 1; value <= size; value++) {
+            if (!distinctInLines(cells, values, index, value))
+                continue;
+            int next = cells.length == 1 ? 0 : cage.operation.accumulator.applyAsInt(accumulated, value);
+            if (cannotReach(cage.operation, next, cells.length - index - 1, cage.value))
+                continue;
+            values[index] = value;
+            enumerate(cage, values, index + 1, next);
+        }
+    }
+
+    private boolean distinctInLines(int[] cells, int[] values, int index, int value) {
+        for (int other = 0; other < index; other++) {
+            boolean sameLine = cells[other] / size == cells[index] / size || cells[other] % size == cells[index] % size;
+            if (sameLine && values[other] == value)
+                return false;
+        }
+        return true;
+    }
+
+    // sums and products only grow with the remaining cells (values >= 1)
+    private static boolean cannotReach(Matoku.Operation operation, int accumulated, int remaining, int expected) {
+        if (operation == Matoku.Operation.PLUS)
+            return accumulated + remaining > expected;
+        if (operation == Matoku.Operation.MULTIPLY)
+            return accumulated == 0 || expected % accumulated != 0;
+        return false;
+    }
+
+    protected int[] initialCandidates() {
+        int[] candidates = new int[size * size];
+        Arrays.fill(candidates, allValues);
+        return candidates;
+    }
+
+    /**
+     * Remove the candidates not supported by any tuple of their cage, the values of the solved cells from their row and column,
+     * and place the hidden singles, until nothing changes
+     * @return false when a contradiction is found
+     */
+    protected boolean propagate(int[] candidates) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int cage = 0; cage < cages.length; cage++) {
+                int[] cells = cages[cage].cells;
+                int[] supported = new int[cells.length];
+                int[] cageTuples = tuples[cage];
+                for (int start = 0; start < cageTuples.length; start += cells.length) {
+                    boolean possible = true;
+                    for (int i = 0; i < cells.length && possible; i++)
+                        possible = (candidates[cells[i]] & (1 << cageTuples[start + i])) != 0;
+                    if (possible)
+                        for (int i = 0; i < cells.length; i++)
+                            supported[i] |= 1 << cageTuples[start + i];
+                }
+                for (int i = 0; i < cells.length; i++) {
+                    int reduced = candidates[cells[i]] & supported[i];
+                    if (reduced == 0)
+                        return false;
+                    if (reduced != candidates[cells[i]]) {
+                        candidates[cells[i]] = reduced;
+                        changed = true;
+                    }
+                }
+            }
+
+            for (int[] unit : units) {
+                int solved = 0;
+                int once = 0;
+                int twice = 0;
+                for (int cell : unit) {
+                    int cellCandidates = candidates[cell];
+                    if (Integer.bitCount(cellCandidates) == 1) {
+                        if ((solved & cellCandidates) != 0)
+                            return false; // the same value solved twice
+                        solved |= cellCandidates;
+                    }
+                    twice |= once & cellCandidates;
+                    once |= cellCandidates;
+                }
+                if (once != allValues)
+                    return false; // a value cannot be placed anywhere in this unit
+                int hidden = once & ~twice & ~solved;
+                for (int cell : unit) {
+                    int cellCandidates = candidates[cell];
+                    if (Integer.bitCount(cellCandidates) == 1)
+                        continue;
+                    int reduced = (cellCandidates & hidden) != 0 ? cellCandidates & hidden : cellCandidates & ~solved;
+                    if (reduced == 0 || Integer.bitCount(reduced & hidden) > 1)
+                        return false;
+                    if (reduced != cellCandidates) {
+                        candidates[cell] = reduced;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,258 @@
+package parsers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mots meles: a grid of letters (X.txt) hiding the words of a list (X_words.txt, one word per line),
+ * written in any of the 8 directions. The letters left once all the words are crossed out give the hidden answer.
+ * The words are searched all at once: an Aho-Corasick automaton of the list reads each line of the grid
+ * in each direction a single time.
+ */
+public class MotsMeles extends CommonChecker implements PuzzleChecker {
+
+    static final String WORDS_SUFFIX = "_words.txt";
+
+    // d and d + 4 are opposite directions
+    private static final int[] ROW_STEPS = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] COLUMN_STEPS = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final String[] DIRECTION_NAMES = {"right", "down right", "down", "down left", "left", "up left", "up", "up right"};
+
+    public static void main(String[] args) {
+        new MotsMeles().check(Report.console());
+    }
+
+    public String pathName() {
+        return "mots-meles/";
+    }
+
+    public void check(Report report) {
+        List<String> fileNames = Arrays.stream(new File(pathName()).listFiles())
+                .map(File::getPath)
+                .sorted()
+                .collect(Collectors.toList());
+        List<String> gridFileNames = fileNames.stream()
+                .filter(fileName -> fileName.endsWith(".txt") && !fileName.endsWith(WORDS_SUFFIX))
+                .collect(Collectors.toList());
+
+        Manifest manifest = Manifest.load(pathName(), getClass());
+        manifest.filesToCheck(fileNames, MotsMeles::motsMelesBaseName);
+
+        Map<String, BiSupplier<List<String>, Search>> fileNameToData = checkFiles(gridFileNames, MotsMeles::checkFile, configuredThreads(), manifest);
+
+        report.info("\n### Consistency checks ###\n");
+
+        fileNameToData.forEach((fileName, data) -> {
+            List<String> notes;
+            if (manifest.isReused(fileName))
+                notes = manifest.notes(fileName);
+            else {
+                notes = data.getTwo() == null ? Collections.emptyList() : Collections.singletonList("Leftover letters: " + data.getTwo().leftovers);
+                manifest.recordNotes(fileName, notes);
+            }
+            if (!data.getOne().isEmpty()) {
+                report.error(fileName);
+                data.getOne().forEach(problem -> report.error("\t" + problem));
+            } else
+                report.info(fileName + " --> OK");
+            notes.forEach(note -> report.info("\t" + note));
+        });
+
+        report.info("\n### Gap information ###\n");
+        Set<String> gridBaseNames = gridFileNames.stream().map(MotsMeles::motsMelesBaseName).collect(Collectors.toSet());
+        fileNames.stream()
+                .filter(fileName -> fileName.endsWith(WORDS_SUFFIX) && !gridBaseNames.contains(motsMelesBaseName(fileName)))
+                .forEach(fileName -> report.info("No grid file for words: " + fileName));
+
+        // a words file is checked with its grid: only its hash is recorded, so that it is not taken as a new file by the next run
+        fileNames.stream()
+                .filter(fileName -> fileName.endsWith(WORDS_SUFFIX) && !manifest.isReused(fileName))
+                .forEach(fileName -> manifest.recordNotes(fileName, Collections.emptyList()));
+        manifest.save();
+    }
+
+    /**
+     * @return the file name without .txt, nor _words.txt
+     */
+    private static String motsMelesBaseName(String fileName) {
+        return fileName.replaceFirst("(" + WORDS_SUFFIX.replace(".", "\\.") + "|\\.txt)$", "");
+    }
+
+    /**
+     * What the search found in a grid
+     */
+    static final class Search {
+        final int[][] occurrences; // for each word: start cell (row * width + column) * 8 + direction of each occurrence
+        final String leftovers; // letters of the cells out of the words, in reading order
+
+        private Search(int[][] occurrences, String leftovers) {
+            this.occurrences = occurrences;
+            this.leftovers = leftovers;
+        }
+    }
+
+    /**
+     * Check a grid and its list of words: each word is found exactly once, and no two words share several cells of a line
+     * (a word may end on the first letter of the next one)
+     * @return composite: list of errors found and what the search found (null when the files cannot be read)
+     */
+    static BiSupplier<List<String>, Search> checkFile(String fileName) {
+        List<String> errors = new ArrayList<>();
+        String wordsFileName = motsMelesBaseName(fileName) + WORDS_SUFFIX;
+        if (!new File(wordsFileName).exists()) {
+            errors.add("No words file: " + wordsFileName);
+            return buildBiSupplier(errors, null);
+        }
+
+        GridReader grid = GridReader.read(fileName);
+        int height = grid.lineCount();
+        int width = height > 0 ? grid.lineLength(0) : 0;
+        for (int row = 0; row < height; row++) {
+            if (grid.lineLength(row) != width) {
+                errors.add("Not the same length as the first row (found=" + grid.lineLength(row) + " v. expected=" + width + "): row #" + (row + 1));
+                continue;
+            }
+            for (int column = 0; column < width; column++) {
+                char letter = grid.charAt(row, column);
+                if (letter < 'A' || letter > 'Z')
+                    errors.add("Not a letter from A to Z ('" + letter + "'): " + cellName(row, column));
+            }
+        }
+
+        List<String> words = readWords(wordsFileName, errors);
+        if (!errors.isEmpty())
+            return buildBiSupplier(errors, null);
+
+        char[] letters = new char[height * width];
+        for (int cell = 0; cell < letters.length; cell++)
+            letters[cell] = grid.charAt(cell / width, cell % width);
+        Search search = search(letters, height, width, words);
+
+        Set<String> overlaps = new LinkedHashSet<>();
+        int[][] owners = new int[ROW_STEPS.length / 2][letters.length]; // last word crossing each cell along each axis, -1 if none
+        for (int[] owner : owners)
+            Arrays.fill(owner, -1);
+        for (int index = 0; index < words.size(); index++) {
+            int[] found = search.occurrences[index];
+            String word = words.get(index);
+            if (found.length == 0)
+                errors.add("Word not found: " + word);
+            else if (found.length > 1)
+                errors.add("Word found " + found.length + " times: " + word + " " + Arrays.stream(found).mapToObj(occurrence -> occurrenceName(occurrence, width)).collect(Collectors.joining(", ")));
+            for (int occurrence : found) {
+                int[] owner = owners[occurrence % 8 % 4];
+                int previousOwner = -1;
+                for (int cell : cells(occurrence, word.length(), width)) {
+                    if (owner[cell] >= 0 && owner[cell] != index && owner[cell] == previousOwner)
+                        overlaps.add("Overlapping words on the same line: " + words.get(owner[cell]) + " and " + word + " at " + cellName(cell / width, cell % width));
+                    previousOwner = owner[cell];
+                    owner[cell] = index;
+                }
+            }
+        }
+        errors.addAll(overlaps);
+
+        return buildBiSupplier(errors, search);
+    }
+
+    private static List<String> readWords(String fileName, List<String> errors) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String line : lines) {
+            String word = line.trim();
+            if (word.isEmpty())
+                continue;
+            if (word.length() < 2 || !word.chars().allMatch(letter -> letter >= 'A' && letter <= 'Z'))
+                errors.add("Not a word of at least 2 letters from A to Z: " + word);
+            else if (!words.add(word))
+                errors.add("Same word several times in the list: " + word);
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Read every line of the grid in each of the 8 directions with the automaton of the words.
+     * A palindrome read in opposite directions on the same cells is found once.
+     */
+    static Search search(char[] letters, int height, int width, List<String> words) {
+        WordAutomaton automaton = new WordAutomaton(words);
+        List<List<Integer>> occurrences = new ArrayList<>(words.size());
+        for (int index = 0; index < words.size(); index++)
+            occurrences.add(new ArrayList<>(1));
+        Set<String> palindromes = words.stream()
+                .filter(word -> new StringBuilder(word).reverse().toString().equals(word))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        for (int direction = 0; direction < ROW_STEPS.length; direction++) {
+            int rowStep = ROW_STEPS[direction];
+            int columnStep = COLUMN_STEPS[direction];
+            int currentDirection = direction;
+            for (int start = 0; start < letters.length; start++) {
+                int row = start / width - rowStep;
+                int column = start % width - columnStep;
+                if (row >= 0 && row < height && column >= 0 && column < width)
+                    continue; // not the first cell of a line in this direction
+                int state = WordAutomaton.ROOT;
+                for (row = start / width, column = start % width; row >= 0 && row < height && column >= 0 && column < width; row += rowStep, column += columnStep) {
+                    state = automaton.read(state, letters[row * width + column]);
+                    int endRow = row;
+                    int endColumn = column;
+                    automaton.matches(state, (index, length) -> {
+                        if (currentDirection >= ROW_STEPS.length / 2 && palindromes.contains(words.get(index)))
+                            return;
+                        int startCell = (endRow - (length - 1) * rowStep) * width + endColumn - (length - 1) * columnStep;
+                        occurrences.get(index).add(startCell * 8 + currentDirection);
+                    });
+                }
+            }
+        }
+
+        int[][] found = occurrences.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+        boolean[] crossed = new boolean[letters.length];
+        for (int index = 0; index < found.length; index++)
+            for (int occurrence : found[index])
+                for (int cell : cells(occurrence, words.get(index).length(), width))
+                    crossed[cell] = true;
+        StringBuilder leftovers = new StringBuilder();
+        for (int cell = 0; cell < letters.length; cell++)
+            if (!crossed[cell])
+                leftovers.append(letters[cell]);
+        return new Search(found, leftovers.toString());
+    }
+
+    private static int[] cells(int occurrence, int length, int width) {
+        int direction = occurrence % 8;
+        int start = occurrence / 8;
+        int[] cells = new int[length];
+        for (int i = 0; i < length; i++)
+            cells[i] = start + i * (ROW_STEPS[direction] * width + COLUMN_STEPS[direction]);
+        return cells;
+    }
+
+    private static String occurrenceName(int occurrence, int width) {
+        int start = occurrence / 8;
+        return "from " + cellName(start / width, start % width) + " " + DIRECTION_NAMES[occurrence % 8];
+    }
+
+    static String cellName(int row, int column) {
+        return "[" + (row + 1) + "," + (column + 1) + "]";
+    }
+
+}
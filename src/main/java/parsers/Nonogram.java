@@ -1,107 +1,109 @@
 package parsers;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
-import java.util.function.BiPredicate;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-public class Nonogram extends DifferentFormat<CommonChecker.BiSupplier<List<List<Integer>>, List<List<Integer>>>> {
+public class Nonogram extends DifferentFormat<NonogramClues> {
 
-    private Nonogram(String pathName) {
-        super(pathName);
+    public Nonogram() {
+        this("nonogram/");
     }
 
-    public static void main(String[] args) {
-        new Nonogram("nonogram/").run();
+    Nonogram(String pathName) {
+        super(pathName);
     }
 
-    private static List<List<Integer>> parseArray(JSONArray jsonArray) {
-        return Arrays.stream(jsonArray.toArray())
-                .map(o -> (JSONObject) o)
-                .map(jsonObj -> (JSONArray) jsonObj.get("values"))
-                .map(ArrayList::toArray)
-                .map(values ->
-                        Arrays.stream(values)
-                                .map(o -> ((Long) o).intValue())
-                                .collect(Collectors.toList())
-                )
-                .collect(Collectors.toList());
+    public static void main(String[] args) {
+        new Nonogram().run();
     }
 
-    protected BiSupplier<List<String>, BiSupplier<List<List<Integer>>, List<List<Integer>>>> checkSourceFile(String fileName) {
+    protected BiSupplier<List<String>, NonogramClues> checkSourceFile(String fileName) {
         List<String> errors = new ArrayList<>();
 
-        JSONParser jsonParser = new JSONParser();
-        List<List<Integer>> rows = null;
-        List<List<Integer>> columns = null;
+        NonogramClues clues = null;
 
-        try (FileReader reader = new FileReader(fileName)) {
-            JSONObject rootJSONObj = (JSONObject) jsonParser.parse(reader);
-            rows = parseArray((JSONArray) rootJSONObj.get("rows"));
-            columns = parseArray((JSONArray) rootJSONObj.get("columns"));
+        try (Reader reader = new BufferedReader(new FileReader(fileName))) {
+            clues = NonogramClues.read(reader);
+            NonogramClues.Lines rows = clues.rows;
+            NonogramClues.Lines columns = clues.columns;
 
-            if (rows.size() != columns.size())
-                errors.add("Bad JSON content: must contain as many rows (got " + rows.size() + ") as columns (got " + columns.size() + ")");
+            if (rows.count != columns.count)
+                errors.add("Bad JSON content: must contain as many rows (got " + rows.count + ") as columns (got " + columns.count + ")");
             else {
-                Integer sumValuesRows = rows.stream().flatMap(Collection::stream).reduce(Integer::sum).orElseThrow();
-                Integer sumValuesColumns = columns.stream().flatMap(Collection::stream).reduce(Integer::sum).orElseThrow();
-                if (!Objects.equals(sumValuesRows, sumValuesColumns))
-                    errors.add("Different global sum between rows (" + sumValuesRows + ") and columns (" + sumValuesColumns + ")");
+                if (rows.total != columns.total)
+                    errors.add("Different global sum between rows (" + rows.total + ") and columns (" + columns.total + ")");
 
                 analyzeStructure(rows, "row", errors);
                 analyzeStructure(columns, "column", errors);
             }
 
+            if (errors.isEmpty())
+                checkSolutions(clues, errors);
+
         } catch (IOException | ParseException e) {
             errors.add("FATAL ERROR with file: " + fileName + " => " + e.getMessage());
             //throw new RuntimeException(e);
         }
 
-        return buildBiSupplier(errors, rows == null ? null : buildBiSupplier(rows, columns));
+        return buildBiSupplier(errors, clues);
     }
 
-    private static void analyzeStructure(List<List<Integer>> structure, String name, List<String> errors) {
-        int size = structure.size();
-        structure.forEach(struct -> {
-            int countOnesAndZeros = struct.stream().reduce(Integer::sum).orElseThrow() + (struct.size() - 1);
+    private static void analyzeStructure(NonogramClues.Lines structure, String name, List<String> errors) {
+        int size = structure.count;
+        for (int line = 0; line < size; line++) {
+            int[] struct = structure.clues[line];
+            int countOnesAndZeros = structure.sums[line] + (struct.length - 1);
             if (countOnesAndZeros > size)
-                errors.add("Too many values (" + countOnesAndZeros + " > " + size + " in " + name + ": " + struct);
-            struct.stream().filter(v -> v > size).forEach(v -> errors.add("A too big value (" + v + ") in " + name + ": " + struct));
-        });
+                errors.add("Too many values (" + countOnesAndZeros + " > " + size + " in " + name + ": " + Arrays.toString(struct));
+            if (structure.maxima[line] > size)
+                Arrays.stream(struct).filter(v -> v > size).forEach(v -> errors.add("A too big value (" + v + ") in " + name + ": " + Arrays.toString(struct)));
+        }
     }
 
-    protected void extraChecksOnResults(List<String> lines, Integer[][] values, List<String> errors) {
-        Arrays.stream(values).flatMap(Stream::of).filter(v -> !(v == 0 || v == 1)).forEach(v -> errors.add("Found bad value in result file: " + v));
+    /**
+     * A source must have exactly one solution, unless the solver budget runs out before it is known
+     */
+    private static void checkSolutions(NonogramClues clues, List<String> errors) {
+        int solutions = new NonogramSolver(clues.rows.clues, clues.columns.clues).countSolutions(2);
+        if (solutions == NonogramSolver.UNDETERMINED)
+            clues.undetermined = true;
+        else
+            checkUniqueSolution(solutions, "these constraints", errors);
     }
 
-    // -5 because .json
-    // -8 because _res.txt
-    protected BiPredicate<String, String> matcherSrcToRes() {
-        return (src, res) -> subString(src, -5).equals(subString(res, -8));
+    protected List<String> notes(NonogramClues clues) {
+        return clues.undetermined
+                ? Collections.singletonList("Uniqueness undetermined: the solver budget (" + NonogramSolver.DEFAULT_LINE_SOLVINGS + " line solvings) ran out")
+                : Collections.emptyList();
+    }
+
+    protected void extraChecksOnResults(Integer[][] values, List<String> errors) {
+        Arrays.stream(values).flatMap(Stream::of).filter(v -> !(v == 0 || v == 1)).forEach(v -> errors.add("Found bad value in result file: " + v));
     }
 
-    protected BiPredicate<String, String> matcherResToSrc() {
-        return (res, src) -> subString(res, -8).equals(subString(src, -5));
+    // -5 because .json
+    protected Function<String, String> sourceBaseName() {
+        return src -> subString(src, -5);
     }
 
-    protected List<String> compareData(BiSupplier<List<List<Integer>>, List<List<Integer>>> rowsAndColumnsSupplier, Integer[][] results) {
+    protected List<String> compareData(NonogramClues clues, Integer[][] results) {
         List<String> errors = new ArrayList<>();
-        List<List<Integer>> rows = rowsAndColumnsSupplier.getOne();
-        List<List<Integer>> columns = rowsAndColumnsSupplier.getTwo();
-        IntStream.range(0, rows.size()).forEach(rowId -> checkConstraint(errors, rows.get(rowId), results[rowId], "in row #"+(rowId+1)));
-        IntStream.range(0, columns.size()).forEach(columnId -> checkConstraint(errors, columns.get(columnId), Arrays.stream(results).map(row -> row[columnId]).toArray(Integer[]::new), "in column #"+(columnId+1)));
+        int[][] rows = clues.rows.clues;
+        int[][] columns = clues.columns.clues;
+        IntStream.range(0, rows.length).forEach(rowId -> checkConstraint(errors, rows[rowId], results[rowId], "in row #"+(rowId+1)));
+        IntStream.range(0, columns.length).forEach(columnId -> checkConstraint(errors, columns[columnId], Arrays.stream(results).map(row -> row[columnId]).toArray(Integer[]::new), "in column #"+(columnId+1)));
         return errors;
     }
 
-    private static void checkConstraint(List<String> errors, List<Integer> constraints, Integer[] data, String forLog) {
+    static void checkConstraint(List<String> errors, int[] constraints, Integer[] data, String forLog) {
         int[] sums = new int[data.length];
         int counter = 0;
         for (Integer datum : data) {
@@ -114,12 +116,12 @@ public class Nonogram extends DifferentFormat<CommonChecker.BiSupplier<List<List
             }
         }
         int[] collect = Arrays.stream(sums).filter(v -> v > 0).toArray();
-        if(constraints.size() != collect.length)
-            errors.add("Different number of constraints "+forLog+": expected="+constraints.size()+", found="+collect.length);
+        if(constraints.length != collect.length)
+            errors.add("Different number of constraints "+forLog+": expected="+constraints.length+", found="+collect.length);
 
-        for (int i = 0; i < constraints.size(); i++) {
-            if(constraints.get(i) != collect[i])
-                errors.add("Different value for constraint #"+(i+1)+" "+forLog+": expected="+constraints.get(i)+", found="+collect[i]);
+        for (int i = 0; i < constraints.length; i++) {
+            if(constraints[i] != collect[i])
+                errors.add("Different value for constraint #"+(i+1)+" "+forLog+": expected="+constraints[i]+", found="+collect[i]);
         }
     }
 
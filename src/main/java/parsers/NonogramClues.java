@@ -0,0 +1,154 @@
+package parsers;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Clues of a nonogram, read from its JSON description ({"rows": [{"values": [...]}, ...], "columns": [...]})
+ * with the streaming API of json-simple: the clues go straight into int arrays, without any JSON object tree,
+ * and the sum and the maximum of each line are computed while parsing.
+ */
+final class NonogramClues {
+
+    static final String ROWS = "rows";
+    static final String COLUMNS = "columns";
+    private static final String VALUES = "values";
+
+    /**
+     * Clues of all the rows, or of all the columns
+     */
+    static final class Lines {
+        int[][] clues = new int[16][];
+        int[] sums = new int[16];
+        int[] maxima = new int[16];
+        int count;
+        int total;
+
+        private void add(int[] values, int length, int sum, int max) {
+            if (count == clues.length) {
+                clues = Arrays.copyOf(clues, count * 2);
+                sums = Arrays.copyOf(sums, count * 2);
+                maxima = Arrays.copyOf(maxima, count * 2);
+            }
+            clues[count] = Arrays.copyOf(values, length);
+            sums[count] = sum;
+            maxima[count] = max;
+            count++;
+            total += sum;
+        }
+
+        private void trim() {
+            clues = Arrays.copyOf(clues, count);
+            sums = Arrays.copyOf(sums, count);
+            maxima = Arrays.copyOf(maxima, count);
+        }
+    }
+
+    final Lines rows;
+    final Lines columns;
+    boolean undetermined; // the solver budget ran out before the solutions were counted
+
+    private NonogramClues(Lines rows, Lines columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * @throws ParseException when the content is not valid JSON, when a clue is not an integer or when rows or columns are missing
+     */
+    static NonogramClues read(Reader reader) throws IOException, ParseException {
+        Handler handler = new Handler();
+        new JSONParser().parse(reader, handler);
+        if (handler.rows == null || handler.columns == null)
+            throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN, "missing '" + (handler.rows == null ? ROWS : COLUMNS) + "'");
+        handler.rows.trim();
+        handler.columns.trim();
+        return new NonogramClues(handler.rows, handler.columns);
+    }
+
+    private static final class Handler implements ContentHandler {
+        private Lines rows;
+        private Lines columns;
+
+        private int objectDepth;
+        private String key;
+        private Lines current;
+        private boolean inValues;
+
+        private int[] values = new int[16];
+        private int length;
+        private int sum;
+        private int max;
+
+        public void startJSON() {
+        }
+
+        public void endJSON() {
+        }
+
+        public boolean startObject() {
+            objectDepth++;
+            return true;
+        }
+
+        public boolean endObject() {
+            objectDepth--;
+            return true;
+        }
+
+        public boolean startObjectEntry(String key) {
+            this.key = key;
+            if (objectDepth == 1) {
+                if (ROWS.equals(key))
+                    current = rows = new Lines();
+                else if (COLUMNS.equals(key))
+                    current = columns = new Lines();
+                else
+                    current = null;
+            }
+            return true;
+        }
+
+        public boolean endObjectEntry() {
+            return true;
+        }
+
+        public boolean startArray() {
+            if (objectDepth == 2 && current != null && VALUES.equals(key)) {
+                inValues = true;
+                length = 0;
+                sum = 0;
+                max = 0;
+            }
+            return true;
+        }
+
+        public boolean endArray() {
+            if (inValues) {
+                current.add(values, length, sum, max);
+                inValues = false;
+            }
+            return true;
+        }
+
+        public boolean primitive(Object value) throws ParseException {
+            if (!inValues)
+                return true;
+            if (!(value instanceof Long))
+                throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN, value);
+            int clue = ((Long) value).intValue();
+            if (length == values.length)
+                values = Arrays.copyOf(values, length * 2);
+            values[length++] = clue;
+            sum += clue;
+            max = Math.max(max, clue);
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,552 @@
+package parsers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solver of nonograms given by their int[] clues, counting solutions up to a limit.
+ * Lines are solved with the left-right overlap (blank lines) and with a dynamic programming line solver
+ * (every cell which is filled, or empty, in all the arrangements of the clues compatible with the known cells),
+ * computed on bit masks for the lines up to {@value #MAX_MASK_LENGTH} cells.
+ * When line solving stalls, the cells are probed (each value is tried and propagated, the cells getting the same value
+ * both times are kept), then the search branches on the probed cell giving the most deductions.
+ * The work is bounded by a number of line solvings, which is the limit of this solver on random grids of density 0.5:
+ * 30x30 ones are settled in about 40 ms (0.3 s at most), but probing deduces almost nothing on a 50x50 one
+ * (2400 of its 2500 cells stay unknown), and most of them are {@link #UNDETERMINED}.
+ */
+public final class NonogramSolver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte EMPTY = 1;
+    private static final byte FILLED = 2;
+
+    /**
+     * Returned by {@link #countSolutions(int)} when the line solving budget ran out before the count was known
+     */
+    public static final int UNDETERMINED = -1;
+    /**
+     * Default budget of {@link #countSolutions(int)}: about a second on a 50x50 grid
+     */
+    public static final long DEFAULT_LINE_SOLVINGS = 1_000_000;
+    private static final int MAX_MASK_LENGTH = Long.SIZE - 2;
+    private static final int CACHE_BITS = 14;
+
+    private final int[][] rowClues;
+    private final int[][] columnClues;
+    private final int height;
+    private final int width;
+
+    // work buffers of the line solver
+    private final byte[] line;
+    private final int[] emptyPrefix;
+    private final int[] fillDelta;
+    private final boolean[][] forward;
+    private final boolean[][] backward;
+    private final long[] reach;
+    private final long[] starts;
+    private final long[] reachBack;
+    private final long[] startsBack;
+    private long deducedFilled;
+    private long deducedEmpty;
+    // direct mapped cache of the mask line solver: line (row, or height + column), known cells, deduced cells (-1 for a contradiction)
+    private final int[] cachedLine = new int[1 << CACHE_BITS];
+    private final long[] cachedFilled = new long[1 << CACHE_BITS];
+    private final long[] cachedEmpty = new long[1 << CACHE_BITS];
+    private final long[] cachedDeducedFilled = new long[1 << CACHE_BITS];
+    private final long[] cachedDeducedEmpty = new long[1 << CACHE_BITS];
+
+    private int limit;
+    private long lineSolvings; // remaining budget, negative once exhausted
+    private final List<byte[]> found = new ArrayList<>();
+    private int deductions; // cells deduced by the last propagation
+    private int[] deduced; // these cells
+    private int[] probeDeduced; // cells deduced by the probe of the filled value
+    private byte[] branchFilled;
+    private byte[] branchEmpty;
+
+    /**
+     * @param rowClues clues of each row (0 values are ignored, an empty array means an empty row)
+     * @param columnClues clues of each column
+     */
+    public NonogramSolver(int[][] rowClues, int[][] columnClues) {
+        this.rowClues = withoutZeros(rowClues);
+        this.columnClues = withoutZeros(columnClues);
+        this.height = rowClues.length;
+        this.width = columnClues.length;
+        int maxLength = Math.max(height, width);
+        int maxClues = Math.max(
+                Arrays.stream(this.rowClues).mapToInt(clues -> clues.length).max().orElse(0),
+                Arrays.stream(this.columnClues).mapToInt(clues -> clues.length).max().orElse(0));
+        this.line = new byte[maxLength];
+        this.emptyPrefix = new int[maxLength + 1];
+        this.fillDelta = new int[maxLength + 1];
+        this.forward = new boolean[maxClues + 1][maxLength + 1];
+        this.backward = new boolean[maxClues + 1][maxLength + 2];
+        this.reach = new long[maxClues + 1];
+        this.starts = new long[maxClues + 1];
+        this.reachBack = new long[maxClues + 1];
+        this.startsBack = new long[maxClues + 1];
+        this.deduced = new int[height * width];
+        this.probeDeduced = new int[height * width];
+        Arrays.fill(cachedLine, -1);
+    }
+
+    private static int[][] withoutZeros(int[][] clues) {
+        return Arrays.stream(clues).map(values -> Arrays.stream(values).filter(v -> v > 0).toArray()).toArray(int[][]::new);
+    }
+
+    /**
+     * @param limit the search stops once this number of solutions is found (2 is enough to detect ambiguous clues)
+     * @return the number of solutions, at most limit, or {@link #UNDETERMINED} after {@value #DEFAULT_LINE_SOLVINGS} line solvings
+     */
+    public int countSolutions(int limit) {
+        return countSolutions(limit, DEFAULT_LINE_SOLVINGS);
+    }
+
+    /**
+     * @param lineSolvings budget of the search
+     * @return the number of solutions, at most limit, or {@link #UNDETERMINED} when the budget ran out
+     */
+    public int countSolutions(int limit, long lineSolvings) {
+        this.limit = limit;
+        this.lineSolvings = lineSolvings;
+        this.found.clear();
+        byte[] grid = lineSolvedGrid();
+        if (grid != null)
+            search(grid);
+        return found.size() < limit && this.lineSolvings < 0 ? UNDETERMINED : found.size();
+    }
+
+    /**
+     * @param index from 0 to the value returned by {@link #countSolutions(int)} (excluded)
+     * @return a solution found by {@link #countSolutions(int)} (1 = filled, 0 = empty)
+     */
+    public int[][] solution(int index) {
+        byte[] cells = found.get(index);
+        int[][] result = new int[height][width];
+        for (int cell = 0; cell < cells.length; cell++)
+            result[cell / width][cell % width] = cells[cell] == FILLED ? 1 : 0;
+        return result;
+    }
+
+    /**
+     * @return the blank grid after the overlaps and the line solving of every line, null on a contradiction
+     */
+    private byte[] lineSolvedGrid() {
+        byte[] grid = new byte[height * width];
+        for (int row = 0; row < height; row++)
+            overlap(grid, true, row);
+        for (int column = 0; column < width; column++)
+            overlap(grid, false, column);
+        return propagate(grid, allDirty(height), allDirty(width)) ? grid : null;
+    }
+
+    private static boolean[] allDirty(int size) {
+        boolean[] dirty = new boolean[size];
+        Arrays.fill(dirty, true);
+        return dirty;
+    }
+
+    private void search(byte[] grid) {
+        if (!probe(grid))
+            return;
+        if (branchFilled == null) {
+            if (propagate(grid, allDirty(height), allDirty(width)))
+                found.add(grid.clone());
+            return;
+        }
+        byte[] filled = branchFilled;
+        byte[] empty = branchEmpty;
+        search(filled);
+        if (found.size() < limit)
+            search(empty);
+    }
+
+    /**
+     * Probe the unknown cells next to a known cell (or to the border): each value is set and propagated,
+     * a value leading to a contradiction gives the other one, and the cells deduced with the same value
+     * by both are set. Once no cell is forced, the probed cell giving
+     * the most deductions for both values is kept to branch on ({@link #branchFilled} and {@link #branchEmpty},
+     * null when every cell is known).
+     * @return false when the grid has no solution
+     */
+    private boolean probe(byte[] grid) {
+        boolean forced = true;
+        while (forced) {
+            forced = false;
+            branchFilled = null;
+            branchEmpty = null;
+            int bestScore = -1;
+            for (int cell = 0; cell < grid.length; cell++) {
+                if (grid[cell] != UNKNOWN || !isFrontier(grid, cell))
+                    continue;
+                byte[] filled = grid.clone();
+                boolean filledPossible = assign(filled, cell, FILLED);
+                int filledDeductions = deductions;
+                int[] filledDeduced = deduced;
+                deduced = probeDeduced;
+                probeDeduced = filledDeduced;
+                byte[] empty = grid.clone();
+                boolean emptyPossible = assign(empty, cell, EMPTY);
+                int emptyDeductions = deductions;
+
+                if (!filledPossible && !emptyPossible)
+                    return false;
+                if (!filledPossible || !emptyPossible) {
+                    System.arraycopy(filledPossible ? filled : empty, 0, grid, 0, grid.length);
+                    forced = true;
+                    continue;
+                }
+                if (merge(grid, filled, empty, filledDeduced, filledDeductions)) {
+                    forced = true;
+                    continue;
+                }
+                int score = Math.min(filledDeductions, emptyDeductions);
+                if (!forced && score > bestScore) {
+                    bestScore = score;
+                    branchFilled = filled;
+                    branchEmpty = empty;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Set the unknown cells having the same value in both probes, then propagate them
+     * @param filledDeduced the cells deduced by the probe of the filled value (the only candidates)
+     * @return true when a cell was set
+     */
+    private boolean merge(byte[] grid, byte[] filled, byte[] empty, int[] filledDeduced, int filledDeductions) {
+        boolean[] dirtyRows = new boolean[height];
+        boolean[] dirtyColumns = new boolean[width];
+        boolean merged = false;
+        for (int i = 0; i < filledDeductions; i++) {
+            int cell = filledDeduced[i];
+            if (grid[cell] != UNKNOWN || filled[cell] != empty[cell])
+                continue;
+            grid[cell] = filled[cell];
+            dirtyRows[cell / width] = true;
+            dirtyColumns[cell % width] = true;
+            merged = true;
+        }
+        if (merged)
+            propagate(grid, dirtyRows, dirtyColumns); // no contradiction as both probes are consistent, at most the end of the budget
+        return merged;
+    }
+
+    private boolean isFrontier(byte[] grid, int cell) {
+        int row = cell / width;
+        int column = cell % width;
+        return row == 0 || column == 0 || row == height - 1 || column == width - 1
+                || grid[cell - width] != UNKNOWN || grid[cell + width] != UNKNOWN || grid[cell - 1] != UNKNOWN || grid[cell + 1] != UNKNOWN;
+    }
+
+    /**
+     * Set a cell and propagate through its row and column
+     * @return false when a contradiction is found
+     */
+    private boolean assign(byte[] grid, int cell, byte value) {
+        grid[cell] = value;
+        boolean[] dirtyRows = new boolean[height];
+        boolean[] dirtyColumns = new boolean[width];
+        dirtyRows[cell / width] = true;
+        dirtyColumns[cell % width] = true;
+        return propagate(grid, dirtyRows, dirtyColumns);
+    }
+
+    /**
+     * Solve the dirty lines until no more cell can be deduced
+     * @return false when a contradiction is found
+     */
+    private boolean propagate(byte[] grid, boolean[] dirtyRows, boolean[] dirtyColumns) {
+        deductions = 0;
+        boolean dirty = true;
+        while (dirty) {
+            for (int row = 0; row < height; row++) {
+                if (!dirtyRows[row])
+                    continue;
+                dirtyRows[row] = false;
+                if (!solveLine(grid, true, row, dirtyColumns))
+                    return false;
+            }
+            for (int column = 0; column < width; column++) {
+                if (!dirtyColumns[column])
+                    continue;
+                dirtyColumns[column] = false;
+                if (!solveLine(grid, false, column, dirtyRows))
+                    return false;
+            }
+            dirty = false;
+            for (boolean dirtyRow : dirtyRows)
+                dirty |= dirtyRow;
+        }
+        return true;
+    }
+
+    private int cellIndex(boolean isRow, int lineIndex, int position) {
+        return isRow ? lineIndex * width + position : position * width + lineIndex;
+    }
+
+    /**
+     * Left-right overlap on a blank line: the cells covered by a block both in its leftmost and in its rightmost position are filled
+     */
+    private void overlap(byte[] grid, boolean isRow, int lineIndex) {
+        int[] clues = isRow ? rowClues[lineIndex] : columnClues[lineIndex];
+        int length = isRow ? width : height;
+        int used = Arrays.stream(clues).sum() + clues.length - 1;
+        if (used > length)
+            return; // reported as a contradiction by the line solver
+        int leftStart = 0;
+        for (int clue : clues) {
+            int rightStart = leftStart + length - used;
+            for (int position = rightStart; position < leftStart + clue; position++)
+                grid[cellIndex(isRow, lineIndex, position)] = FILLED;
+            leftStart += clue + 1;
+        }
+    }
+
+    /**
+     * Find the cells of a line which are filled, or empty, in all the arrangements of the clues compatible with its known cells
+     * @param crossingDirty marked for each crossing line where a cell was deduced
+     * @return false when the clues cannot fit the known cells, or when the budget is exhausted
+     */
+    private boolean solveLine(byte[] grid, boolean isRow, int lineIndex, boolean[] crossingDirty) {
+        if (--lineSolvings < 0)
+            return false;
+        int length = isRow ? width : height;
+        return length <= MAX_MASK_LENGTH ? solveLineMasks(grid, isRow, lineIndex, length, crossingDirty) : solveLineTable(grid, isRow, lineIndex, crossingDirty);
+    }
+
+    /**
+     * Same as {@link #solveLineTable}, with a bit per cell and a cache of the results
+     */
+    private boolean solveLineMasks(byte[] grid, boolean isRow, int lineIndex, int length, boolean[] crossingDirty) {
+        long filled = 0;
+        long empty = 0;
+        for (int position = 0; position < length; position++) {
+            byte value = grid[cellIndex(isRow, lineIndex, position)];
+            if (value == FILLED)
+                filled |= 1L << position;
+            else if (value == EMPTY)
+                empty |= 1L << position;
+        }
+
+        int line = isRow ? lineIndex : height + lineIndex;
+        long hash = (filled * 0x9E3779B97F4A7C15L + empty) * 0xC2B2AE3D27D4EB4FL + line;
+        int slot = (int) (hash >>> (Long.SIZE - CACHE_BITS));
+        if (cachedLine[slot] != line || cachedFilled[slot] != filled || cachedEmpty[slot] != empty) {
+            cachedLine[slot] = line;
+            cachedFilled[slot] = filled;
+            cachedEmpty[slot] = empty;
+            if (deduce(isRow ? rowClues[lineIndex] : columnClues[lineIndex], length, filled, empty)) {
+                cachedDeducedFilled[slot] = deducedFilled;
+                cachedDeducedEmpty[slot] = deducedEmpty;
+            } else
+                cachedDeducedFilled[slot] = cachedDeducedEmpty[slot] = -1;
+        }
+        if (cachedDeducedFilled[slot] == -1)
+            return false;
+
+        long deducedFilled = cachedDeducedFilled[slot];
+        for (long changed = deducedFilled | cachedDeducedEmpty[slot]; changed != 0; changed &= changed - 1) {
+            int position = Long.numberOfTrailingZeros(changed);
+            int cell = cellIndex(isRow, lineIndex, position);
+            grid[cell] = (deducedFilled >>> position & 1) != 0 ? FILLED : EMPTY;
+            crossingDirty[position] = true;
+            deduced[deductions++] = cell;
+        }
+        return true;
+    }
+
+    /**
+     * Line solver on masks: forward[j] of {@link #solveLineTable} is the mask reach[j], backward[j] is read
+     * from reachBack[count - j], computed on the reversed line. The unknown cells which can only be filled,
+     * or only be empty, are stored in {@link #deducedFilled} and {@link #deducedEmpty}
+     * @return false when the clues cannot fit the known cells
+     */
+    private boolean deduce(int[] clues, int length, long filled, long empty) {
+        int count = clues.length;
+        long cells = (1L << length) - 1;
+        deducedFilled = 0;
+        deducedEmpty = 0;
+        if (!reach(clues, false, filled, empty, length, reach, starts))
+            return false;
+        long unknown = cells & ~filled & ~empty;
+        if (unknown == 0)
+            return true;
+        reach(clues, true, reverse(filled, length), reverse(empty, length), length, reachBack, startsBack);
+
+        long notFilled = cells & ~filled;
+        long canBeEmpty = 0;
+        long canFill = 0;
+        for (int j = 0; j <= count; j++) {
+            long after = reverseBoundaries(reachBack[count - j], length); // bit i: the clues from j fit in [i, length)
+            canBeEmpty |= reach[j] & (after >>> 1);
+            if (j > 0) {
+                int clue = clues[j - 1];
+                long endsBefore = j == count ? after : notFilled & (after >>> 1); // bit e: block j - 1 may end at e
+                canFill |= smear(starts[j] & (endsBefore >>> clue), clue);
+            }
+        }
+        canBeEmpty &= unknown;
+        canFill &= unknown;
+        if ((canBeEmpty | canFill) != unknown)
+            return false;
+        deducedFilled = canFill & ~canBeEmpty;
+        deducedEmpty = canBeEmpty & ~canFill;
+        return true;
+    }
+
+    /**
+     * Bit parallel forward pass: reach[j] holds the boundaries i (bit i, from 0 to length) such that the first j clues fit
+     * in the cells [0, i), starts[j] the cells where the block of the clue j - 1 may start
+     * @param reversed the line and the clues are read from the end
+     * @return true when all the clues fit in the line
+     */
+    private static boolean reach(int[] clues, boolean reversed, long filled, long empty, int length, long[] reach, long[] starts) {
+        long cells = (1L << length) - 1;
+        long notFilled = cells & ~filled;
+        long notEmpty = cells & ~empty;
+        int count = clues.length;
+        reach[0] = extend(1L, notFilled);
+        for (int j = 1; j <= count; j++) {
+            int clue = clues[reversed ? count - j : j - 1];
+            long allowed = j == 1 ? reach[0] : (reach[j - 1] & notFilled) << 1;
+            starts[j] = allowed & blockStarts(notEmpty, clue);
+            reach[j] = extend(starts[j] << clue, notFilled);
+        }
+        return (reach[count] >>> length & 1) != 0;
+    }
+
+    /**
+     * @return the boundaries reached from the given ones going right over cells which are not filled
+     */
+    private static long extend(long boundaries, long notFilled) {
+        return boundaries | ((notFilled + (boundaries & notFilled)) ^ notFilled);
+    }
+
+    /**
+     * @return the cells s such that the cells [s, s + clue) are all in the mask
+     */
+    private static long blockStarts(long mask, int clue) {
+        long result = mask;
+        for (int covered = 1; covered < clue; ) {
+            int shift = Math.min(covered, clue - covered);
+            result &= result >>> shift;
+            covered += shift;
+        }
+        return result;
+    }
+
+    /**
+     * @return the cells [s, s + clue) for every start s
+     */
+    private static long smear(long starts, int clue) {
+        long result = starts;
+        for (int covered = 1; covered < clue; ) {
+            int shift = Math.min(covered, clue - covered);
+            result |= result << shift;
+            covered += shift;
+        }
+        return result;
+    }
+
+    private static long reverse(long cells, int length) {
+        return Long.reverse(cells) >>> (Long.SIZE - length);
+    }
+
+    private static long reverseBoundaries(long boundaries, int length) {
+        return Long.reverse(boundaries) >>> (Long.SIZE - 1 - length);
+    }
+
+    /**
+     * Dynamic programming line solver: forward[j][i] tells if the first j clues fit in the cells [0, i),
+     * backward[j][i] if the clues from j fit in the cells [i, length)
+     */
+    private boolean solveLineTable(byte[] grid, boolean isRow, int lineIndex, boolean[] crossingDirty) {
+        int[] clues = isRow ? rowClues[lineIndex] : columnClues[lineIndex];
+        int length = isRow ? width : height;
+        int count = clues.length;
+
+        boolean unknown = false;
+        for (int position = 0; position < length; position++) {
+            line[position] = grid[cellIndex(isRow, lineIndex, position)];
+            emptyPrefix[position + 1] = emptyPrefix[position] + (line[position] == EMPTY ? 1 : 0);
+            unknown |= line[position] == UNKNOWN;
+        }
+
+        forward[0][0] = true;
+        for (int i = 1; i <= length; i++)
+            forward[0][i] = forward[0][i - 1] && line[i - 1] != FILLED;
+        for (int j = 1; j <= count; j++) {
+            forward[j][0] = false;
+            int clue = clues[j - 1];
+            for (int i = 1; i <= length; i++) {
+                boolean value = line[i - 1] != FILLED && forward[j][i - 1];
+                int start = i - clue;
+                if (!value && start >= 0 && emptyPrefix[i] == emptyPrefix[start])
+                    value = j == 1 ? forward[0][start] : start >= 1 && line[start - 1] != FILLED && forward[j - 1][start - 1];
+                forward[j][i] = value;
+            }
+        }
+        if (!forward[count][length])
+            return false;
+        if (!unknown)
+            return true;
+
+        backward[count][length] = true;
+        for (int i = length - 1; i >= 0; i--)
+            backward[count][i] = backward[count][i + 1] && line[i] != FILLED;
+        for (int j = count - 1; j >= 0; j--) {
+            backward[j][length] = false;
+            int clue = clues[j];
+            for (int i = length - 1; i >= 0; i--) {
+                boolean value = line[i] != FILLED && backward[j][i + 1];
+                int end = i + clue;
+                if (!value && end <= length && emptyPrefix[end] == emptyPrefix[i])
+                    value = j == count - 1 ? backward[count][end] : end < length && line[end] != FILLED && backward[j + 1][end + 1];
+                backward[j][i] = value;
+            }
+        }
+
+        Arrays.fill(fillDelta, 0, length + 1, 0);
+        for (int j = 0; j < count; j++) {
+            int clue = clues[j];
+            for (int start = 0; start + clue <= length; start++) {
+                int end = start + clue;
+                if (emptyPrefix[end] != emptyPrefix[start])
+                    continue;
+                boolean left = j == 0 ? forward[0][start] : start >= 1 && line[start - 1] != FILLED && forward[j][start - 1];
+                boolean right = j == count - 1 ? backward[count][end] : end < length && line[end] != FILLED && backward[j + 1][end + 1];
+                if (left && right) {
+                    fillDelta[start]++;
+                    fillDelta[end]--;
+                }
+            }
+        }
+
+        int covered = 0;
+        for (int position = 0; position < length; position++) {
+            covered += fillDelta[position];
+            if (line[position] != UNKNOWN)
+                continue;
+            boolean canFill = covered > 0;
+            boolean canBeEmpty = false;
+            for (int j = 0; j <= count && !canBeEmpty; j++)
+                canBeEmpty = forward[j][position] && backward[j][position + 1];
+            if (canFill == canBeEmpty) {
+                if (!canFill)
+                    return false;
+                continue;
+            }
+            int cell = cellIndex(isRow, lineIndex, position);
+            grid[cell] = canFill ? FILLED : EMPTY;
+            crossingDirty[position] = true;
+            deduced[deductions++] = cell;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,19 @@
+package parsers;
+
+/**
+ * Checker of one puzzle directory.
+ * Implementations are listed in META-INF/services/parsers.PuzzleChecker to be discovered by {@link AllCheckers}.
+ */
+public interface PuzzleChecker {
+
+    /**
+     * @return the checked directory (e.g. "sudoku/")
+     */
+    String pathName();
+
+    /**
+     * Check all the files of the directory
+     * @param report where to write the checks output
+     */
+    void check(Report report);
+}
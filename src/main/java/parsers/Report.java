@@ -0,0 +1,64 @@
+package parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Output of a checker: information lines go to the standard output, errors to the error output.
+ * A buffered report keeps its lines until {@link #replay()}, so that checkers running at the same time do not mix their outputs.
+ */
+public final class Report {
+
+    private final boolean buffered;
+    private final List<String> lines = new ArrayList<>();
+    private final List<Boolean> errorLines = new ArrayList<>();
+    private int errorCount;
+
+    private Report(boolean buffered) {
+        this.buffered = buffered;
+    }
+
+    static Report console() {
+        return new Report(false);
+    }
+
+    static Report buffered() {
+        return new Report(true);
+    }
+
+    public void info(String line) {
+        print(line, false);
+    }
+
+    public void error(String line) {
+        print(line, true);
+    }
+
+    private synchronized void print(String line, boolean error) {
+        if (error)
+            errorCount++;
+        if (!buffered) {
+            (error ? System.err : System.out).println(line);
+            return;
+        }
+        lines.add(line);
+        errorLines.add(error);
+    }
+
+    /**
+     * @return the number of error lines reported so far
+     */
+    public synchronized int errorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Print the buffered lines, in the order they were reported
+     */
+    synchronized void replay() {
+        for (int i = 0; i < lines.size(); i++)
+            (errorLines.get(i) ? System.err : System.out).println(lines.get(i));
+        lines.clear();
+        errorLines.clear();
+    }
+}
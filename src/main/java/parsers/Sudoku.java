@@ -2,179 +2,142 @@ package parsers;
 
 import java.io.*;
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
-public class Sudoku extends CommonChecker {
+public class Sudoku extends CommonChecker implements PuzzleChecker {
 	public static void main(String[] args) {
-		Map<String, BiSupplier<List<Problem>, Integer[][]>> fileNameToData = Arrays.stream(new File("sudoku/").listFiles())
+		new Sudoku().check(Report.console());
+	}
+	
+	public String pathName() {
+		return "sudoku/";
+	}
+	
+	public void check(Report report) {
+		List<String> fileNames = Arrays.stream(new File(pathName()).listFiles())
 				.map(File::getPath)
-				.collect(collectorToMap(Function.identity(), Sudoku::checkFile, LinkedHashMap::new));
+				.collect(Collectors.toList());
+		
+		Manifest manifest = Manifest.load(pathName(), getClass());
+		manifest.filesToCheck(fileNames, CommonChecker::baseName);
 		
-		System.out.println("\n### Consistency checks ###\n");
+		Map<String, int[]> solutions = new ConcurrentHashMap<>();
+		Map<String, BiSupplier<List<String>, int[]>> fileNameToData = checkFiles(fileNames, fileName -> checkFileForReport(fileName, solutions), configuredThreads(), manifest);
+		
+		report.info("\n### Consistency checks ###\n");
 		
 		fileNameToData.forEach((fileName, data) -> {
 			if (!data.getOne().isEmpty()) {
-				System.out.println(fileName);
-				data.getOne().forEach(problem -> System.err.println("\t" + problem));
+				report.info(fileName);
+				data.getOne().forEach(problem -> report.error("\t" + problem));
 			} else
-				System.out.println(fileName + " --> OK");
+				report.info(fileName + " --> OK");
 		});
 		
-		Map<Map.Entry<String, BiSupplier<List<Problem>, Integer[][]>>, Optional<BiSupplier<List<Problem>, Integer[][]>>> resToSrc =
+		Map<Map.Entry<String, BiSupplier<List<String>, int[]>>, Optional<BiSupplier<List<String>, int[]>>> resToSrc =
 				extractMappedData(
 						fileNameToData,
 						fileName -> fileName.endsWith("_res.txt"),
 						fileName -> fileName.replace("_res.txt", ".txt")
 				);
 		
-		Map<Map.Entry<String, BiSupplier<List<Problem>, Integer[][]>>, Optional<BiSupplier<List<Problem>, Integer[][]>>> srcToRes =
+		Map<Map.Entry<String, BiSupplier<List<String>, int[]>>, Optional<BiSupplier<List<String>, int[]>>> srcToRes =
 				extractMappedData(
 						fileNameToData,
 						fileName -> !fileName.endsWith("_res.txt"),
 						fileName -> fileName.replace(".txt", "_res.txt")
 				);
 		
-		System.out.println("\n### Cross-files consistency checks ###\n");
+		report.info("\n### Cross-files consistency checks ###\n");
 		
 		resToSrc.forEach((entryDataForResultFile, optionalMatchedDataForSourceFile) ->
 				optionalMatchedDataForSourceFile.ifPresentOrElse(matchedDataForSourceFile -> {
-					List<BiSupplier<Integer, Integer>> biSuppliers = compareData(entryDataForResultFile.getValue().getTwo(), matchedDataForSourceFile.getTwo());
-					if (!biSuppliers.isEmpty()) {
-						System.err.println("Differences on provided inputs for: " + entryDataForResultFile.getKey());
-						System.err.println("\t" + collectionToString(biSuppliers));
+					String resultFileName = entryDataForResultFile.getKey();
+					List<String> differences;
+					if (manifest.isReused(resultFileName))
+						differences = manifest.crossIssues(resultFileName);
+					else {
+						int[] resData = entryDataForResultFile.getValue().getTwo();
+						List<BiSupplier<Integer, Integer>> biSuppliers = compareData(resData, matchedDataForSourceFile.getTwo());
+						differences = biSuppliers.isEmpty() ? new ArrayList<>() : Collections.singletonList(collectionToString(biSuppliers));
+						int[] solution = solutions.get(resultFileName.replace("_res.txt", ".txt"));
+						if (biSuppliers.isEmpty() && solution != null) {
+							List<BiSupplier<Integer, Integer>> notSolved = compareData(resData, solution);
+							if (!notSolved.isEmpty())
+								differences.add("Not the solution of the source grid at: " + collectionToString(notSolved));
+						}
+						manifest.recordCrossIssues(resultFileName, differences);
+					}
+					if (!differences.isEmpty()) {
+						report.error("Differences on provided inputs for: " + resultFileName);
+						differences.forEach(difference -> report.error("\t" + difference));
 					}
 				}, () -> {
-					System.err.println("No source file for result file: " + entryDataForResultFile.getKey());
+					report.error("No source file for result file: " + entryDataForResultFile.getKey());
 				})
 		);
 		
-		System.out.println("\n### Gap information ###\n");
+		report.info("\n### Gap information ###\n");
 		srcToRes.entrySet().stream().filter(e -> !e.getValue().isPresent()).forEach(entryDataForSourceFile ->
-				System.out.println("No result file for source: "+entryDataForSourceFile.getKey().getKey())
+				report.info("No result file for source: "+entryDataForSourceFile.getKey().getKey())
 		);
 		
+		manifest.save();
 	}
 	
-	private static final Pattern pattern = Pattern.compile("[0-9_]");
+	/**
+	 * Check a file, and for a valid source grid, check that it has a unique solution
+	 * @param solutions filled with the unique solution of each source grid
+	 */
+	private static BiSupplier<List<String>, int[]> checkFileForReport(String fileName, Map<String, int[]> solutions) {
+		BiSupplier<List<Problem>, int[]> result = checkFile(fileName);
+		if (result.getOne().isEmpty() && !fileName.endsWith("_res.txt")) {
+			int[] solution = new int[SudokuValidator.SIZE * SudokuValidator.SIZE];
+			int count = SudokuSolver.countSolutions(result.getTwo(), 2, solution);
+			if (count == 0)
+				result.getOne().add(Problem.of(-1, -1, "No solution for this grid"));
+			else if (count > 1)
+				result.getOne().add(Problem.of(-1, -1, "Several solutions for this grid"));
+			else
+				solutions.put(fileName, solution);
+		}
+		return buildBiSupplier(result.getOne().stream().map(Problem::toString).collect(Collectors.toList()), result.getTwo());
+	}
 	
-	private static BiSupplier<List<Problem>, Integer[][]> checkFile(String fileName) {
+	static BiSupplier<List<Problem>, int[]> checkFile(String fileName) {
 		List<Problem> problems = new ArrayList<>();
-		Integer[][] data = new Integer[9][9];
-		
-		String lineRead = null;
-		try {
-			FileInputStream stream = new FileInputStream(fileName);
-			InputStreamReader isr = new InputStreamReader(stream);
-			BufferedReader reader = new BufferedReader(isr);
-			int rowNumber = 0;
-			while ((lineRead = reader.readLine()) != null) {
-				if (lineRead.length() != 9) {
-					Problem problem = new Problem();
-					problem.rowNumber = OptionalInt.of(rowNumber);
-					problem.description = "Not the right characters count on this row (found=" + lineRead.length() + ")";
-					problems.add(problem);
-				}
-				for (int columnIndex = 0; columnIndex < lineRead.length(); columnIndex++) {
-					char c = lineRead.charAt(columnIndex);
-					String s = c + "";
-					if (pattern.matcher(s).matches())
-						data[rowNumber][columnIndex] = "_".equals(s) ? null : Integer.parseInt(s);
-					else {
-						Problem problem = new Problem();
-						problem.rowNumber = OptionalInt.of(rowNumber);
-						problem.colNumber = OptionalInt.of(columnIndex);
-						problem.description = "Not an acceptable character (found=" + s + ")";
-						problems.add(problem);
-					}
-				}
-				rowNumber++;
-			}
-			
-			if (rowNumber != 9) {
-				Problem problem = new Problem();
-				problem.description = "Not the right rows count (found=" + rowNumber + ")";
-				problems.add(problem);
-			}
-			reader.close();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("Line : " + lineRead);
-		}
-		
-		BiSupplier<List<Problem>, Integer[][]> result = new BiSupplier<>() {
-			public List<Problem> getOne() {
-				return problems;
-			}
-			
-			public Integer[][] getTwo() {
-				return data;
-			}
-		};
+		int[] data = GridReader.read(fileName).decode(SudokuValidator.SIZE, SudokuValidator.SIZE,
+				(row, column, description) -> problems.add(Problem.of(row, column, description)));
 		
 		if (!problems.isEmpty())
-			return result;
-		
-		for (int row = 0; row < 9; row++) {
-			int finalRow = row;
-			
-			analyzeStructure(data, problems,
-					() -> IntStream.of(finalRow),
-					() -> IntStream.range(0, 9),
-					() -> "the row"
-			);
-			
-			/*Map<Integer, List<Integer>> collect = Arrays.stream(data[row]).filter(Objects::nonNull).collect(Collectors.groupingBy(Function.identity()));
-			collect.entrySet().stream().filter(e -> e.getValue().size() > 1).forEach(e -> {
-				Problem problem = new Problem();
-				problem.rowNumber = OptionalInt.of(finalRow);
-				problem.value = OptionalInt.of(e.getKey());
-				problem.description = "Too many of the same value in the row (found = "+e.getValue().size()+")";
-				problems.add(problem);
-			});*/
-		}
+			return buildBiSupplier(problems, data);
 		
-		for (int column = 0; column < 9; column++) {
-			int finalColumn = column;
-			analyzeStructure(data, problems,
-					() -> IntStream.range(0, 9),
-					() -> IntStream.of(finalColumn),
-					() -> "the column"
-			);
-		
-			/*Map<Integer, List<Integer>> collect = Arrays.stream(data).map(row -> row[finalColumn]).filter(Objects::nonNull).collect(Collectors.groupingBy(Function.identity()));
-			collect.entrySet().stream().filter(e -> e.getValue().size() > 1).forEach(e -> {
-				Problem problem = new Problem();
-				problem.colNumber = OptionalInt.of(finalColumn);
-				problem.value = OptionalInt.of(e.getKey());
-				problem.description = "Too many of the same value in the column (found = "+e.getValue().size()+")";
-				problems.add(problem);
-			});*/
-		}
+		SudokuValidator.validate(data, problems);
 		
-		for (int square = 0; square < 9; square++) {
-			int finalSquare = square;
-			analyzeStructure(data, problems,
-					() -> generateStream(3 * (finalSquare / 3)),
-					() -> generateStream(3 * (finalSquare % 3)),
-					() -> "square"
-			);
-		}
-		
-		return result;
+		return buildBiSupplier(problems, data);
 	}
 	
-	private static class Problem {
+	static class Problem {
 		OptionalInt rowNumber = OptionalInt.empty();
 		OptionalInt colNumber = OptionalInt.empty();
 		OptionalInt value = OptionalInt.empty();
 		String description;
 		
+		/**
+		 * @param row row index, -1 when not related to a row
+		 * @param column column index, -1 when not related to a column
+		 */
+		static Problem of(int row, int column, String description) {
+			Problem problem = new Problem();
+			if (row >= 0)
+				problem.rowNumber = OptionalInt.of(row);
+			if (column >= 0)
+				problem.colNumber = OptionalInt.of(column);
+			problem.description = description;
+			return problem;
+		}
+		
 		@Override
 		public String toString() {
 			return "Problem{" +
@@ -186,40 +149,6 @@ public class Sudoku extends CommonChecker {
 		}
 	}
 
-	private static void analyzeStructure(Integer[][] data, List<Problem> problems,
-			Supplier<IntStream> rowGenerator, Supplier<IntStream> columnGenerator,
-			Supplier<String> forDescription) {
-		
-		Map<Integer, List<BiSupplier<Integer, Integer>>> collect = new HashMap<>();
-		
-		crossStreams(rowGenerator, columnGenerator,
-				(row, column) -> {
-					Integer value = data[row][column];
-					if (value == null)
-						return;
-					List<BiSupplier<Integer, Integer>> biConsumers = collect.computeIfAbsent(value, x -> new ArrayList<>());
-					biConsumers.add(new BiSupplier<>() {
-						public Integer getOne() {
-							return row;
-						}
-						
-						public Integer getTwo() {
-							return column;
-						}
-					});
-				}
-		);
-		
-		collect.entrySet().stream().filter(e -> e.getValue().size() > 1).forEach(e -> {
-			Problem problem = new Problem();
-			problem.rowNumber = OptionalInt.of(e.getValue().get(0).getOne());
-			problem.colNumber = OptionalInt.of(e.getValue().get(0).getTwo());
-			problem.value = OptionalInt.of(e.getKey());
-			problem.description = "Too many of the same value in " + forDescription.get() + " (found = " + e.getValue().size() + ") -- " + collectionToString(e.getValue());
-			problems.add(problem);
-		});
-	}
-	
 	private static String collectionToString(Collection<BiSupplier<Integer, Integer>> collection) {
 		return collection
 				.stream()
@@ -227,23 +156,12 @@ public class Sudoku extends CommonChecker {
 				.collect(Collectors.joining(", "));
 	}
 	
-	private static IntStream generateStream(int initial) {
-		return IntStream.range(initial, initial + 3); // 3 values per dimension in square
-	}
-	
-	private static List<BiSupplier<Integer, Integer>> compareData(Integer[][] resData, Integer[][] srcData) {
-		return
-			crossStreamsWithResult(
-				() -> IntStream.range(0, 9),
-				() -> IntStream.range(0, 9),
-				(row, column) -> {
-					if (srcData[row][column] != null) {
-						if (!resData[row][column].equals(srcData[row][column])) {
-							return Optional.of(buildBiSupplier(row, column));
-						}
-					}
-					return Optional.empty();
-				});
+	private static List<BiSupplier<Integer, Integer>> compareData(int[] resData, int[] srcData) {
+		List<BiSupplier<Integer, Integer>> differences = new ArrayList<>();
+		for (int index = 0; index < srcData.length; index++)
+			if (srcData[index] != GridReader.EMPTY && resData[index] != srcData[index])
+				differences.add(buildBiSupplier(index / SudokuValidator.SIZE, index % SudokuValidator.SIZE));
+		return differences;
 	}
 
 }
@@ -0,0 +1,165 @@
+package parsers;
+
+import java.util.Arrays;
+
+/**
+ * Solver of 9x9 grids stored as flat primitive arrays (index = row * 9 + column), counting solutions up to a limit.
+ * The values used by each row, column and square are bit masks (bit = 1 << value, as in {@link SudokuValidator}):
+ * candidates are propagated (naked and hidden singles) before branching on the cell with the fewest candidates.
+ */
+final class SudokuSolver {
+
+	private static final int SIZE = SudokuValidator.SIZE;
+	private static final int CELLS = SIZE * SIZE;
+	private static final int ALL_VALUES = 0x3FE; // 1..9
+
+	// 27 units: rows (0-8), columns (9-17), squares (18-26)
+	private static final int[][] UNITS = new int[3 * SIZE][SIZE];
+	private static final int[] ROW_UNIT = new int[CELLS];
+	private static final int[] COLUMN_UNIT = new int[CELLS];
+	private static final int[] SQUARE_UNIT = new int[CELLS];
+
+	static {
+		for (int index = 0; index < CELLS; index++) {
+			int row = index / SIZE;
+			int column = index % SIZE;
+			int square = 3 * (row / 3) + column / 3;
+			ROW_UNIT[index] = row;
+			COLUMN_UNIT[index] = SIZE + column;
+			SQUARE_UNIT[index] = 2 * SIZE + square;
+			UNITS[row][column] = index;
+			UNITS[SIZE + column][row] = index;
+			UNITS[2 * SIZE + square][3 * (row % 3) + column % 3] = index;
+		}
+	}
+
+	private final int limit;
+	private final int[] solution;
+	private int count;
+
+	private SudokuSolver(int limit, int[] solution) {
+		this.limit = limit;
+		this.solution = solution;
+	}
+
+	/**
+	 * @param givens flat grid of 81 values, {@link SudokuValidator#EMPTY} for an empty cell
+	 * @param limit the search stops once this number of solutions is found
+	 * @param solution if not null, receives the first solution found
+	 * @return the number of solutions, at most limit (0 when the givens are not valid)
+	 */
+	static int countSolutions(int[] givens, int limit, int[] solution) {
+		int[] cells = Arrays.copyOf(givens, CELLS);
+		int[] used = new int[UNITS.length];
+		for (int index = 0; index < CELLS; index++) {
+			int value = cells[index];
+			if (value == SudokuValidator.EMPTY)
+				continue;
+			int bit = 1 << value;
+			if ((bit & ALL_VALUES) == 0 || ((used[ROW_UNIT[index]] | used[COLUMN_UNIT[index]] | used[SQUARE_UNIT[index]]) & bit) != 0)
+				return 0;
+			place(cells, used, index, value);
+		}
+		SudokuSolver solver = new SudokuSolver(limit, solution);
+		solver.search(cells, used);
+		return solver.count;
+	}
+
+	private static void place(int[] cells, int[] used, int index, int value) {
+		int bit = 1 << value;
+		cells[index] = value;
+		used[ROW_UNIT[index]] |= bit;
+		used[COLUMN_UNIT[index]] |= bit;
+		used[SQUARE_UNIT[index]] |= bit;
+	}
+
+	private static int candidates(int[] used, int index) {
+		return ALL_VALUES & ~(used[ROW_UNIT[index]] | used[COLUMN_UNIT[index]] | used[SQUARE_UNIT[index]]);
+	}
+
+	private void search(int[] cells, int[] used) {
+		if (!propagate(cells, used))
+			return;
+
+		int bestIndex = -1;
+		int bestCandidates = 0;
+		int bestCount = Integer.MAX_VALUE;
+		for (int index = 0; index < CELLS; index++) {
+			if (cells[index] != SudokuValidator.EMPTY)
+				continue;
+			int candidates = candidates(used, index);
+			int candidatesCount = Integer.bitCount(candidates);
+			if (candidatesCount < bestCount) {
+				bestIndex = index;
+				bestCandidates = candidates;
+				bestCount = candidatesCount;
+			}
+		}
+
+		if (bestIndex < 0) {
+			if (count++ == 0 && solution != null)
+				System.arraycopy(cells, 0, solution, 0, CELLS);
+			return;
+		}
+
+		while (bestCandidates != 0 && count < limit) {
+			int value = Integer.numberOfTrailingZeros(bestCandidates);
+			bestCandidates &= bestCandidates - 1;
+			int[] nextCells = cells.clone();
+			int[] nextUsed = used.clone();
+			place(nextCells, nextUsed, bestIndex, value);
+			search(nextCells, nextUsed);
+		}
+	}
+
+	/**
+	 * Place the naked singles (cells with one candidate) and the hidden singles (value with one possible cell in a unit)
+	 * until nothing changes
+	 * @return false when a contradiction is found
+	 */
+	private static boolean propagate(int[] cells, int[] used) {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int index = 0; index < CELLS; index++) {
+				if (cells[index] != SudokuValidator.EMPTY)
+					continue;
+				int candidates = candidates(used, index);
+				if (candidates == 0)
+					return false;
+				if ((candidates & (candidates - 1)) == 0) {
+					place(cells, used, index, Integer.numberOfTrailingZeros(candidates));
+					changed = true;
+				}
+			}
+
+			for (int unit = 0; unit < UNITS.length; unit++) {
+				int once = 0;
+				int twice = 0;
+				for (int index : UNITS[unit]) {
+					if (cells[index] != SudokuValidator.EMPTY)
+						continue;
+					int candidates = candidates(used, index);
+					twice |= once & candidates;
+					once |= candidates;
+				}
+				if ((once | used[unit]) != ALL_VALUES)
+					return false; // a value cannot be placed anywhere in this unit
+				int hidden = once & ~twice;
+				while (hidden != 0) {
+					int bit = hidden & -hidden;
+					hidden &= hidden - 1;
+					for (int index : UNITS[unit]) {
+						if (cells[index] == SudokuValidator.EMPTY && (candidates(used, index) & bit) != 0) {
+							place(cells, used, index, Integer.numberOfTrailingZeros(bit));
+							changed = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+}
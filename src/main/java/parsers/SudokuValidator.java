@@ -0,0 +1,116 @@
+package parsers;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Validation of a 9x9 grid stored as a flat primitive array (index = row * 9 + column).
+ * One 16-bit mask per row, column and square keeps track of the values already seen:
+ * duplicates are found with bit operations and problems are only built when a conflict exists.
+ */
+final class SudokuValidator {
+
+	static final int SIZE = 9;
+	static final int EMPTY = GridReader.EMPTY;
+
+	private static final int SQUARE_SIZE = 3;
+
+	private SudokuValidator() {
+	}
+
+	/**
+	 * Fill the given list with the duplicates found in rows, then columns, then squares
+	 * (same order and same descriptions as the former stream-based analysis)
+	 * @param cells flat grid of 81 values, {@link #EMPTY} for an empty cell
+	 * @param problems list to fill with the problems found
+	 */
+	static void validate(int[] cells, List<Sudoku.Problem> problems) {
+		int[] rowDuplicates = new int[SIZE];
+		int[] columnDuplicates = new int[SIZE];
+		int[] squareDuplicates = new int[SIZE];
+		int[] rowSeen = new int[SIZE];
+		int[] columnSeen = new int[SIZE];
+		int[] squareSeen = new int[SIZE];
+		boolean conflict = false;
+
+		for (int index = 0; index < SIZE * SIZE; index++) {
+			int value = cells[index];
+			if (value == EMPTY)
+				continue;
+			int bit = 1 << value;
+			int row = index / SIZE;
+			int column = index % SIZE;
+			int square = squareOf(row, column);
+			if ((rowSeen[row] & bit) != 0) {
+				rowDuplicates[row] |= bit;
+				conflict = true;
+			}
+			if ((columnSeen[column] & bit) != 0) {
+				columnDuplicates[column] |= bit;
+				conflict = true;
+			}
+			if ((squareSeen[square] & bit) != 0) {
+				squareDuplicates[square] |= bit;
+				conflict = true;
+			}
+			rowSeen[row] |= bit;
+			columnSeen[column] |= bit;
+			squareSeen[square] |= bit;
+		}
+
+		if (!conflict)
+			return;
+
+		for (int row = 0; row < SIZE; row++)
+			report(cells, rowDuplicates[row], row * SIZE, 1, SIZE, "the row", problems);
+		for (int column = 0; column < SIZE; column++)
+			report(cells, columnDuplicates[column], column, SIZE, 1, "the column", problems);
+		for (int square = 0; square < SIZE; square++) {
+			int firstIndex = SQUARE_SIZE * (square / SQUARE_SIZE) * SIZE + SQUARE_SIZE * (square % SQUARE_SIZE);
+			report(cells, squareDuplicates[square], firstIndex, SQUARE_SIZE, SQUARE_SIZE, "square", problems);
+		}
+	}
+
+	private static int squareOf(int row, int column) {
+		return SQUARE_SIZE * (row / SQUARE_SIZE) + column / SQUARE_SIZE;
+	}
+
+	/**
+	 * Build one problem per duplicated value of an area, by increasing value
+	 * @param duplicates mask of the duplicated values
+	 * @param firstIndex flat index of the top-left cell of the area
+	 * @param lineCount number of grid rows covered by the area
+	 * @param lineLength number of consecutive cells per line
+	 */
+	private static void report(int[] cells, int duplicates, int firstIndex, int lineCount, int lineLength,
+			String forDescription, List<Sudoku.Problem> problems) {
+		while (duplicates != 0) {
+			int value = Integer.numberOfTrailingZeros(duplicates);
+			duplicates &= duplicates - 1;
+
+			StringBuilder positions = new StringBuilder();
+			int found = 0;
+			int firstMatch = -1;
+			for (int line = 0; line < lineCount; line++) {
+				for (int offset = 0; offset < lineLength; offset++) {
+					int index = firstIndex + line * SIZE + offset;
+					if (cells[index] != value)
+						continue;
+					if (found++ == 0)
+						firstMatch = index;
+					else
+						positions.append(", ");
+					positions.append('[').append(index / SIZE + 1).append(',').append(index % SIZE + 1).append(']');
+				}
+			}
+
+			Sudoku.Problem problem = new Sudoku.Problem();
+			problem.rowNumber = OptionalInt.of(firstMatch / SIZE);
+			problem.colNumber = OptionalInt.of(firstMatch % SIZE);
+			problem.value = OptionalInt.of(value);
+			problem.description = "Too many of the same value in " + forDescription + " (found = " + found + ") -- " + positions;
+			problems.add(problem);
+		}
+	}
+
+}
@@ -2,152 +2,167 @@ package parsers;
 
 import java.io.*;
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Supplier;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
-public class Takuzu extends CommonChecker {
+public class Takuzu extends CommonChecker implements PuzzleChecker {
 	public static void main(String[] args) {
-		Map<String, BiSupplier<List<Problem>, Integer[][]>> fileNameToData = Arrays.stream(new File("takuzu/").listFiles())
+		new Takuzu().check(Report.console());
+	}
+	
+	public String pathName() {
+		return "takuzu/";
+	}
+	
+	public void check(Report report) {
+		List<String> fileNames = Arrays.stream(new File(pathName()).listFiles())
 				.map(File::getPath)
-				.collect(collectorToMap(Function.identity(), Takuzu::checkFile, LinkedHashMap::new));
+				.collect(Collectors.toList());
+		
+		Manifest manifest = Manifest.load(pathName(), getClass());
+		manifest.filesToCheck(fileNames, CommonChecker::baseName);
+		
+		Map<String, int[]> solutions = new ConcurrentHashMap<>();
+		Map<String, BiSupplier<List<String>, int[]>> fileNameToData = checkFiles(fileNames, fileName -> checkFileForReport(fileName, solutions), configuredThreads(), manifest);
 		
-		System.out.println("\n### Consistency checks ###\n");
+		report.info("\n### Consistency checks ###\n");
 		
 		fileNameToData.forEach((fileName, data) -> {
 			if (!data.getOne().isEmpty()) {
-				System.out.println(fileName);
-				data.getOne().forEach(problem -> System.err.println("\t" + problem));
+				report.info(fileName);
+				data.getOne().forEach(problem -> report.error("\t" + problem));
 			} else
-				System.out.println(fileName + " --> OK");
+				report.info(fileName + " --> OK");
 		});
 		
-		Map<Map.Entry<String, BiSupplier<List<Problem>, Integer[][]>>, Optional<BiSupplier<List<Problem>, Integer[][]>>> resToSrc =
+		Map<Map.Entry<String, BiSupplier<List<String>, int[]>>, Optional<BiSupplier<List<String>, int[]>>> resToSrc =
 				extractMappedData(
 						fileNameToData,
 						fileName -> fileName.endsWith("_res.txt"),
 						fileName -> fileName.replace("_res.txt", ".txt")
 				);
 		
-		Map<Map.Entry<String, BiSupplier<List<Problem>, Integer[][]>>, Optional<BiSupplier<List<Problem>, Integer[][]>>> srcToRes =
+		Map<Map.Entry<String, BiSupplier<List<String>, int[]>>, Optional<BiSupplier<List<String>, int[]>>> srcToRes =
 				extractMappedData(
 						fileNameToData,
 						fileName -> !fileName.endsWith("_res.txt"),
 						fileName -> fileName.replace(".txt", "_res.txt")
 				);
 		
-		System.out.println("\n### Cross-files consistency checks ###\n");
+		report.info("\n### Cross-files consistency checks ###\n");
 		
 		resToSrc.forEach((entryDataForResultFile, optionalMatchedDataForSourceFile) ->
 				optionalMatchedDataForSourceFile.ifPresentOrElse(matchedDataForSourceFile -> {
-					List<BiSupplier<Integer, Integer>> biSuppliers = compareData(entryDataForResultFile.getValue().getTwo(), matchedDataForSourceFile.getTwo());
-					if (!biSuppliers.isEmpty()) {
-						System.err.println("Differences on provided inputs for: " + entryDataForResultFile.getKey());
-						System.err.println("\t" + collectionToString(biSuppliers));
+					String resultFileName = entryDataForResultFile.getKey();
+					List<String> differences;
+					if (manifest.isReused(resultFileName))
+						differences = manifest.crossIssues(resultFileName);
+					else {
+						int[] resData = entryDataForResultFile.getValue().getTwo();
+						int[] srcData = matchedDataForSourceFile.getTwo();
+						differences = new ArrayList<>();
+						List<BiSupplier<Integer, Integer>> biSuppliers = resData.length == srcData.length ? compareData(resData, srcData) : null;
+						if (biSuppliers == null)
+							differences.add("Not the size of the source grid");
+						else if (!biSuppliers.isEmpty())
+							differences.add(collectionToString(biSuppliers));
+						int[] solution = solutions.get(resultFileName.replace("_res.txt", ".txt"));
+						if (biSuppliers != null && biSuppliers.isEmpty() && solution != null) {
+							List<BiSupplier<Integer, Integer>> notSolved = compareData(resData, solution);
+							if (!notSolved.isEmpty())
+								differences.add("Not the solution of the source grid at: " + collectionToString(notSolved));
+						}
+						manifest.recordCrossIssues(resultFileName, differences);
+					}
+					if (!differences.isEmpty()) {
+						report.error("Differences on provided inputs for: " + resultFileName);
+						differences.forEach(difference -> report.error("\t" + difference));
 					}
 				}, () -> {
-					System.err.println("No source file for result file: " + entryDataForResultFile.getKey());
+					report.error("No source file for result file: " + entryDataForResultFile.getKey());
 				})
 		);
 		
-		System.out.println("\n### Gap information ###\n");
+		report.info("\n### Gap information ###\n");
 		srcToRes.entrySet().stream().filter(e -> !e.getValue().isPresent()).forEach(entryDataForSourceFile ->
-				System.out.println("No result file for source: "+entryDataForSourceFile.getKey().getKey())
+				report.info("No result file for source: "+entryDataForSourceFile.getKey().getKey())
 		);
 		
+		manifest.save();
 	}
 	
-	private static final Pattern pattern = Pattern.compile("[0-9_]");
+	/**
+	 * Check a file, and for a valid source grid, check that it has a unique solution
+	 * @param solutions filled with the unique solution of each source grid
+	 */
+	private static BiSupplier<List<String>, int[]> checkFileForReport(String fileName, Map<String, int[]> solutions) {
+		BiSupplier<List<Problem>, int[]> result = checkFile(fileName);
+		if (result.getOne().isEmpty() && !fileName.endsWith("_res.txt")) {
+			TakuzuSolver solver = new TakuzuSolver(result.getTwo(), sizeOf(result.getTwo()));
+			int count = solver.countSolutions(2);
+			if (count == 0)
+				result.getOne().add(Problem.of(-1, -1, "No solution for this grid"));
+			else if (count > 1)
+				result.getOne().add(Problem.of(-1, -1, "Several solutions for this grid"));
+			else
+				solutions.put(fileName, solver.solution());
+		}
+		return buildBiSupplier(result.getOne().stream().map(Problem::toString).collect(Collectors.toList()), result.getTwo());
+	}
 	
-	private static BiSupplier<List<Problem>, Integer[][]> checkFile(String fileName) {
+	/**
+	 * The size of a grid is its rows count, which must be even, and its cells hold 0, 1 or _
+	 */
+	static BiSupplier<List<Problem>, int[]> checkFile(String fileName) {
 		List<Problem> problems = new ArrayList<>();
-		Integer[][] data = new Integer[10][10];
-		
-		String lineRead = null;
-		try {
-			FileInputStream stream = new FileInputStream(fileName);
-			InputStreamReader isr = new InputStreamReader(stream);
-			BufferedReader reader = new BufferedReader(isr);
-			int rowNumber = 0;
-			while ((lineRead = reader.readLine()) != null) {
-				if (lineRead.length() != 10) {
-					Problem problem = new Problem();
-					problem.rowNumber = OptionalInt.of(rowNumber);
-					problem.description = "Not the right characters count on this row (found=" + lineRead.length() + ")";
-					problems.add(problem);
-				}
-				for (int columnIndex = 0; columnIndex < lineRead.length(); columnIndex++) {
-					char c = lineRead.charAt(columnIndex);
-					String s = c + "";
-					if (pattern.matcher(s).matches())
-						data[rowNumber][columnIndex] = "_".equals(s) ? null : Integer.parseInt(s);
-					else {
-						Problem problem = new Problem();
-						problem.rowNumber = OptionalInt.of(rowNumber);
-						problem.colNumber = OptionalInt.of(columnIndex);
-						problem.description = "Not an acceptable character (found=" + s + ")";
-						problems.add(problem);
-					}
-				}
-				rowNumber++;
-			}
-			
-			if (rowNumber != 10) {
-				Problem problem = new Problem();
-				problem.description = "Not the right rows count (found=" + rowNumber + ")";
-				problems.add(problem);
-			}
-			reader.close();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("Line : " + lineRead);
+		GridReader grid = GridReader.read(fileName);
+		int size = grid.lineCount();
+		if (size == 0 || size % 2 != 0 || size > TakuzuSolver.MAX_SIZE) {
+			problems.add(Problem.of(-1, -1, "Not an even rows count up to " + TakuzuSolver.MAX_SIZE + " (found=" + size + ")"));
+			return buildBiSupplier(problems, new int[0]);
 		}
-		
-		BiSupplier<List<Problem>, Integer[][]> result = new BiSupplier<>() {
-			public List<Problem> getOne() {
-				return problems;
-			}
-			
-			public Integer[][] getTwo() {
-				return data;
-			}
-		};
+		int[] data = grid.decode(size, size,
+				(row, column, description) -> problems.add(Problem.of(row, column, description)));
+		for (int cell = 0; cell < data.length; cell++)
+			if (data[cell] > 1)
+				problems.add(Problem.of(cell / size, cell % size, "Not an acceptable character (found=" + data[cell] + ")"));
 		
 		if (!problems.isEmpty())
-			return result;
-		
-		for (int row = 0; row < 10; row++) {
-			int finalRow = row;
-			
-			analyzeStructure(data, problems,
-					() -> IntStream.of(finalRow),
-					() -> IntStream.range(0, 10),
-					() -> "the row #"+(finalRow+1)
-			);
-		}
+			return buildBiSupplier(problems, data);
 		
-		for (int column = 0; column < 10; column++) {
-			int finalColumn = column;
-			analyzeStructure(data, problems,
-					() -> IntStream.range(0, 10),
-					() -> IntStream.of(finalColumn),
-					() -> "the column #"+(finalColumn+1)
-			);
-		}
+		long[][] lines = TakuzuSolver.lines(data, size);
+		for (int line = 0; line < 2 * size; line++)
+			analyzeStructure(lines[0][line], lines[1][line], line, size, problems);
+		analyzeUnicity(lines, 0, size, problems);
+		analyzeUnicity(lines, size, size, problems);
 		
-		return result;
+		return buildBiSupplier(problems, data);
+	}
+	
+	static int sizeOf(int[] data) {
+		return (int) Math.sqrt(data.length);
 	}
 	
-	private static class Problem {
+	static class Problem {
 		OptionalInt rowNumber = OptionalInt.empty();
 		OptionalInt colNumber = OptionalInt.empty();
 		OptionalInt value = OptionalInt.empty();
 		String description;
 		
+		/**
+		 * @param row row index, -1 when not related to a row
+		 * @param column column index, -1 when not related to a column
+		 */
+		static Problem of(int row, int column, String description) {
+			Problem problem = new Problem();
+			if (row >= 0)
+				problem.rowNumber = OptionalInt.of(row);
+			if (column >= 0)
+				problem.colNumber = OptionalInt.of(column);
+			problem.description = description;
+			return problem;
+		}
+		
 		@Override
 		public String toString() {
 			return "Problem{" +
@@ -159,46 +174,76 @@ public class Takuzu extends CommonChecker {
 		}
 	}
 
-	private static void analyzeStructure(Integer[][] data, List<Problem> problems,
-			Supplier<IntStream> rowGenerator, Supplier<IntStream> columnGenerator,
-			Supplier<String> forDescription) {
-		
-		Map<Integer, List<BiSupplier<Integer, Integer>>> collect = new HashMap<>();
-		
-		crossStreams(rowGenerator, columnGenerator,
-				(row, column) -> {
-					Integer value = data[row][column];
-					//if (value == null)
-					//	return;
-					List<BiSupplier<Integer, Integer>> biConsumers = collect.computeIfAbsent(value, x -> new ArrayList<>());
-					biConsumers.add(new BiSupplier<>() {
-						public Integer getOne() {
-							return row;
-						}
-						
-						public Integer getTwo() {
-							return column;
-						}
-					});
-				}
-		);
-
-		boolean doNotIgnoreIf = collect.keySet().stream().noneMatch(Objects::isNull);
-        /*collect
-                .values()
-                .stream()
-                .map(List::size)
-                .reduce(0, Integer::sum) == 10)*/
-		if(doNotIgnoreIf) {
-            collect.entrySet().stream().filter(e -> e.getValue().size() != 5).forEach(e -> {
-                Problem problem = new Problem();
-                problem.rowNumber = OptionalInt.of(e.getValue().get(0).getOne());
-                problem.colNumber = OptionalInt.of(e.getValue().get(0).getTwo());
-                problem.value = OptionalInt.of(e.getKey());
-                problem.description = "Not the right amount of '" + e.getKey() + "' in " + forDescription.get() + " (found = " + e.getValue().size() + ") -- " + collectionToString(e.getValue());
-                problems.add(problem);
-            });
-        }
+	/**
+	 * @param line rows then columns
+	 */
+	private static String lineName(int line, int size) {
+		return line < size ? "the row #" + (line + 1) : "the column #" + (line - size + 1);
+	}
+	
+	private static BiSupplier<Integer, Integer> cell(int line, int position, int size) {
+		return line < size ? buildBiSupplier(line, position) : buildBiSupplier(position, line - size);
+	}
+	
+	private static List<BiSupplier<Integer, Integer>> cells(long pattern, int line, int size) {
+		List<BiSupplier<Integer, Integer>> cells = new ArrayList<>();
+		for (long bits = pattern; bits != 0; bits &= bits - 1)
+			cells.add(cell(line, Long.numberOfTrailingZeros(bits), size));
+		return cells;
+	}
+	
+	/**
+	 * Three consecutive equal values, and for a complete line, the balance of the values
+	 * @param zeros cells of the line holding a 0 (bit = 1 << position)
+	 * @param ones cells of the line holding a 1
+	 */
+	private static void analyzeStructure(long zeros, long ones, int line, int size, List<Problem> problems) {
+		long[] patterns = {zeros, ones};
+		
+		for (int value = 0; value <= 1; value++) {
+			long triples = TakuzuSolver.triples(patterns[value]);
+			long starts = triples & ~(triples << 1); // first triple of each run
+			for (long bits = starts; bits != 0; bits &= bits - 1) {
+				int position = Long.numberOfTrailingZeros(bits);
+				int length = Long.numberOfTrailingZeros(~(patterns[value] >>> position));
+				long runPattern = (length == Long.SIZE ? -1L : (1L << length) - 1) << position;
+				List<BiSupplier<Integer, Integer>> run = cells(runPattern, line, size);
+				Problem problem = Problem.of(run.get(0).getOne(), run.get(0).getTwo(),
+						"More than two consecutive '" + value + "' in " + lineName(line, size) + " -- " + collectionToString(run));
+				problem.value = OptionalInt.of(value);
+				problems.add(problem);
+			}
+		}
+		
+		if (Long.bitCount(zeros | ones) != size)
+			return;
+		for (int value = 0; value <= 1; value++) {
+			int found = Long.bitCount(patterns[value]);
+			if (found == size / 2 || found == 0)
+				continue;
+			List<BiSupplier<Integer, Integer>> cells = cells(patterns[value], line, size);
+			Problem problem = Problem.of(cells.get(0).getOne(), cells.get(0).getTwo(),
+					"Not the right amount of '" + value + "' in " + lineName(line, size) + " (found = " + found + ") -- " + collectionToString(cells));
+			problem.value = OptionalInt.of(value);
+			problems.add(problem);
+		}
+	}
+	
+	/**
+	 * Identical complete lines
+	 * @param first first line of the rows, or of the columns
+	 */
+	private static void analyzeUnicity(long[][] lines, int first, int size, List<Problem> problems) {
+		long full = size == TakuzuSolver.MAX_SIZE ? -1L : (1L << size) - 1;
+		Map<Long, Integer> completeLines = new HashMap<>();
+		for (int line = first; line < first + size; line++) {
+			if ((lines[0][line] | lines[1][line]) != full)
+				continue;
+			Integer same = completeLines.putIfAbsent(lines[1][line], line);
+			if (same != null)
+				problems.add(Problem.of(line < size ? line : -1, line < size ? -1 : line - size,
+						"Same values in " + lineName(line, size) + " and " + lineName(same, size)));
+		}
 	}
 	
 	private static String collectionToString(Collection<BiSupplier<Integer, Integer>> collection) {
@@ -208,19 +253,13 @@ public class Takuzu extends CommonChecker {
 				.collect(Collectors.joining(", "));
 	}
 	
-	private static List<BiSupplier<Integer, Integer>> compareData(Integer[][] resData, Integer[][] srcData) {
-		return
-			crossStreamsWithResult(
-				() -> IntStream.range(0, 10),
-				() -> IntStream.range(0, 10),
-				(row, column) -> {
-					if (srcData[row][column] != null) {
-						if (!resData[row][column].equals(srcData[row][column])) {
-							return Optional.of(buildBiSupplier(row, column));
-						}
-					}
-					return Optional.empty();
-				});
+	private static List<BiSupplier<Integer, Integer>> compareData(int[] resData, int[] srcData) {
+		List<BiSupplier<Integer, Integer>> differences = new ArrayList<>();
+		int size = sizeOf(srcData);
+		for (int index = 0; index < srcData.length; index++)
+			if (srcData[index] != GridReader.EMPTY && resData[index] != srcData[index])
+				differences.add(buildBiSupplier(index / size, index % size));
+		return differences;
 	}
 
 }
@@ -0,0 +1,282 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Takuzu grids of any even size up to 64 stored as bit patterns: each row and each column is a pair of longs,
+ * the cells holding a 1 and the cells holding a 0 (bit = 1 << position in the line).
+ * The rules are bit operations on these patterns: no three equal values in a row ({@link #triples(long)}),
+ * as many 0 as 1 in each line (bit counts), and no two identical complete rows or columns.
+ * The solver deduces the cells of each line with a dynamic programming line solver (every value which fits in a completion
+ * of the line following the rules), before branching on a cell of the row with the fewest unknown cells,
+ * counting solutions up to a limit.
+ * Run as a program, it solves the takuzu/ sources and writes the missing results to _computed.txt files.
+ */
+final class TakuzuSolver {
+
+	static final int MAX_SIZE = 64;
+	private static final int BOTH = 1 << 0 | 1 << 1;
+
+	private final int size;
+	private final int half;
+	private final long full;
+	// lines 0..size-1 are the rows, size..2*size-1 the columns
+	private final long[] initialOnes;
+	private final long[] initialZeros;
+
+	// work buffers of the line solver
+	private final boolean[][] reachable;
+	private final boolean[][] alive;
+	private final int[] possible;
+
+	private int limit;
+	private int count;
+	private int[] solution;
+
+	/**
+	 * @param cells flat grid (row * size + column) of a source file without errors, {@link GridReader#EMPTY} for an empty cell
+	 * @param size even, at most {@link #MAX_SIZE}
+	 */
+	TakuzuSolver(int[] cells, int size) {
+		this.size = size;
+		this.half = size / 2;
+		this.full = size == MAX_SIZE ? -1L : (1L << size) - 1;
+		long[][] lines = lines(cells, size);
+		this.initialOnes = lines[1];
+		this.initialZeros = lines[0];
+		this.reachable = new boolean[size + 1][state(half, 1, 2) + 1];
+		this.alive = new boolean[size + 1][state(half, 1, 2) + 1];
+		this.possible = new int[size];
+	}
+
+	public static void main(String[] args) {
+		String pathName = args.length > 0 ? args[0] : new Takuzu().pathName();
+		ComputedFiles.solveAll(pathName, fileName -> {
+			CommonChecker.BiSupplier<List<Takuzu.Problem>, int[]> source = Takuzu.checkFile(fileName);
+			if (!source.getOne().isEmpty())
+				return ComputedFiles.Solved.invalid(source.getOne().stream().map(Takuzu.Problem::toString).collect(Collectors.toList()));
+			int size = Takuzu.sizeOf(source.getTwo());
+			TakuzuSolver solver = new TakuzuSolver(source.getTwo(), size);
+			int solutions = solver.countSolutions(2);
+			return ComputedFiles.Solved.of(solutions, solver.solution(), size);
+		});
+	}
+
+	/**
+	 * @param cells flat grid (row * size + column) of 0, 1 and {@link GridReader#EMPTY} values
+	 * @return the patterns of the 0 values then of the 1 values, each of them with the rows then the columns
+	 */
+	static long[][] lines(int[] cells, int size) {
+		long[][] lines = new long[2][2 * size];
+		for (int cell = 0; cell < cells.length; cell++) {
+			int value = cells[cell];
+			if (value != 0 && value != 1)
+				continue;
+			int row = cell / size;
+			int column = cell % size;
+			lines[value][row] |= 1L << column;
+			lines[value][size + column] |= 1L << row;
+		}
+		return lines;
+	}
+
+	/**
+	 * @return the positions starting three consecutive cells of the pattern
+	 */
+	static long triples(long pattern) {
+		return pattern & pattern >>> 1 & pattern >>> 2;
+	}
+
+	/**
+	 * @param limit the search stops once this number of solutions is found
+	 * @return the number of solutions, at most limit
+	 */
+	int countSolutions(int limit) {
+		this.limit = limit;
+		this.count = 0;
+		this.solution = null;
+		search(initialOnes.clone(), initialZeros.clone());
+		return count;
+	}
+
+	/**
+	 * @return the first solution found by {@link #countSolutions(int)} (row * size + column), null if there is none
+	 */
+	int[] solution() {
+		return solution;
+	}
+
+	private void search(long[] ones, long[] zeros) {
+		if (!propagate(ones, zeros))
+			return;
+
+		int bestLine = -1;
+		int bestUnknown = Integer.MAX_VALUE;
+		for (int line = 0; line < 2 * size; line++) {
+			int unknown = size - Long.bitCount(ones[line] | zeros[line]);
+			if (unknown > 0 && unknown < bestUnknown) {
+				bestLine = line;
+				bestUnknown = unknown;
+			}
+		}
+
+		if (bestLine < 0) {
+			if (count++ == 0) {
+				solution = new int[size * size];
+				for (int cell = 0; cell < solution.length; cell++)
+					solution[cell] = (int) (ones[cell / size] >>> (cell % size)) & 1;
+			}
+			return;
+		}
+
+		int position = Long.numberOfTrailingZeros(full & ~(ones[bestLine] | zeros[bestLine]));
+		int row = bestLine < size ? bestLine : position;
+		int column = bestLine < size ? position : bestLine - size;
+		for (int value = 0; value <= 1 && count < limit; value++) {
+			long[] nextOnes = ones.clone();
+			long[] nextZeros = zeros.clone();
+			set(value == 1 ? nextOnes : nextZeros, row, column);
+			search(nextOnes, nextZeros);
+		}
+	}
+
+	private void set(long[] patterns, int row, int column) {
+		patterns[row] |= 1L << column;
+		patterns[size + column] |= 1L << row;
+	}
+
+	/**
+	 * Solve the lines until nothing changes
+	 * @return false when a rule is broken
+	 */
+	private boolean propagate(long[] ones, long[] zeros) {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int line = 0; line < 2 * size; line++) {
+				long unknown = full & ~(ones[line] | zeros[line]);
+				if (unknown == 0)
+					continue;
+				if (!solveLine(ones[line], zeros[line]))
+					return false;
+				if (Long.bitCount(unknown) == 2)
+					excludeSameLine(ones, zeros, line, unknown);
+				for (long bits = unknown; bits != 0; bits &= bits - 1) {
+					int position = Long.numberOfTrailingZeros(bits);
+					if (possible[position] == 0)
+						return false;
+					if (possible[position] == BOTH)
+						continue;
+					int row = line < size ? line : position;
+					int column = line < size ? position : line - size;
+					set(possible[position] == 1 << 1 ? ones : zeros, row, column);
+					changed = true;
+				}
+			}
+		}
+		return validCompleteLines(ones, zeros, 0) && validCompleteLines(ones, zeros, size);
+	}
+
+	/**
+	 * A line with two unknown cells has two completions (one 0 and one 1): when a complete line of the same direction
+	 * matches its known cells, only the other completion is kept in {@link #possible}
+	 */
+	private void excludeSameLine(long[] ones, long[] zeros, int line, long unknown) {
+		int first = line < size ? 0 : size;
+		for (int other = first; other < first + size; other++) {
+			if (other == line || (ones[other] | zeros[other]) != full || ((ones[other] ^ ones[line]) & ~unknown & full) != 0)
+				continue;
+			for (long bits = unknown; bits != 0; bits &= bits - 1) {
+				int position = Long.numberOfTrailingZeros(bits);
+				possible[position] &= (ones[other] & 1L << position) != 0 ? 1 << 0 : 1 << 1;
+			}
+			return;
+		}
+	}
+
+	// state after a cell of a line: count of 1 so far, value of the cell, length (1 or 2) of its run
+	private static int state(int onesCount, int value, int runLength) {
+		return onesCount << 2 | value << 1 | runLength - 1;
+	}
+
+	/**
+	 * Dynamic programming line solver: reachable[i][state] tells if the first i cells can follow the known cells
+	 * without three equal values in a row nor more than half of a value. The states reachable at the end of the line
+	 * with half of the values are followed backwards to find the values possible in each cell.
+	 * @return false when the line cannot be completed, otherwise {@link #possible} holds the possible values of each cell (bit = 1 << value)
+	 */
+	private boolean solveLine(long lineOnes, long lineZeros) {
+		for (int position = 0; position < size; position++) {
+			Arrays.fill(reachable[position + 1], false);
+			for (int value = 0; value <= 1; value++) {
+				if (((value == 1 ? lineZeros : lineOnes) & 1L << position) != 0)
+					continue;
+				for (int onesCount = value; onesCount <= half; onesCount++) {
+					if (position + 1 - onesCount > half)
+						continue;
+					int previousOnes = onesCount - value;
+					reachable[position + 1][state(onesCount, value, 1)] = position == 0 ? previousOnes == 0
+							: reachable[position][state(previousOnes, 1 - value, 1)] || reachable[position][state(previousOnes, 1 - value, 2)];
+					reachable[position + 1][state(onesCount, value, 2)] = position > 0 && reachable[position][state(previousOnes, value, 1)];
+				}
+			}
+		}
+
+		Arrays.fill(alive[size], false);
+		boolean complete = false;
+		for (int value = 0; value <= 1; value++) {
+			for (int runLength = 1; runLength <= 2; runLength++) {
+				int state = state(half, value, runLength);
+				alive[size][state] = reachable[size][state];
+				complete |= reachable[size][state];
+			}
+		}
+		if (!complete)
+			return false;
+
+		for (int position = size; position > 0; position--) {
+			possible[position - 1] = 0;
+			Arrays.fill(alive[position - 1], false);
+			for (int state = 0; state < alive[position].length; state++) {
+				if (!alive[position][state])
+					continue;
+				int onesCount = state >> 2;
+				int value = state >> 1 & 1;
+				possible[position - 1] |= 1 << value;
+				if (position == 1)
+					continue;
+				int previousOnes = onesCount - value;
+				if ((state & 1) == 1)
+					alive[position - 1][state(previousOnes, value, 1)] = true;
+				else
+					for (int runLength = 1; runLength <= 2; runLength++)
+						alive[position - 1][state(previousOnes, 1 - value, runLength)] = true;
+			}
+			for (int state = 0; state < alive[position - 1].length; state++)
+				alive[position - 1][state] &= reachable[position - 1][state];
+		}
+		return true;
+	}
+
+	/**
+	 * @param first first line of the rows, or of the columns
+	 * @return false when two complete lines are identical, or when a complete line breaks a rule
+	 */
+	private boolean validCompleteLines(long[] ones, long[] zeros, int first) {
+		Set<Long> complete = new HashSet<>();
+		for (int line = first; line < first + size; line++) {
+			if ((ones[line] | zeros[line]) != full)
+				continue;
+			if ((ones[line] & zeros[line]) != 0 || Long.bitCount(ones[line]) != half || triples(ones[line]) != 0 || triples(zeros[line]) != 0)
+				return false;
+			if (!complete.add(ones[line]))
+				return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,113 @@
+package parsers;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton of a word list (letters from A to Z): a text is read one letter at a time, with a single
+ * table lookup per letter, and the state reached tells all the words ending at this letter.
+ * The transitions of the trie are completed with the failure links once, so that reading never goes back.
+ */
+final class WordAutomaton {
+
+    static final int ROOT = 0;
+    private static final int LETTERS = 26;
+    private static final int NONE = -1;
+
+    private final List<String> words;
+    private int[][] next = new int[16][];
+    private int[] word = new int[16]; // index of the word ending at a state, NONE when there is none
+    private int[] dictionary; // nearest state on the failure links ending a word, NONE when there is none
+    private int states;
+
+    /**
+     * @param words distinct words made of letters from A to Z
+     */
+    WordAutomaton(List<String> words) {
+        this.words = words;
+        addState();
+        for (int index = 0; index < words.size(); index++) {
+            String text = words.get(index);
+            int state = ROOT;
+            for (int i = 0; i < text.length(); i++) {
+                int letter = text.charAt(i) - 'A';
+                if (next[state][letter] == NONE)
+                    next[state][letter] = addState();
+                state = next[state][letter];
+            }
+            word[state] = index;
+        }
+        link();
+    }
+
+    private int addState() {
+        if (states == next.length) {
+            next = Arrays.copyOf(next, states * 2);
+            word = Arrays.copyOf(word, states * 2);
+        }
+        next[states] = new int[LETTERS];
+        Arrays.fill(next[states], NONE);
+        word[states] = NONE;
+        return states++;
+    }
+
+    /**
+     * Breadth first: the failure link of a state is the longest proper suffix of its text which is a state,
+     * and a missing transition is the one of its failure link
+     */
+    private void link() {
+        int[] failure = new int[states];
+        dictionary = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        dictionary[ROOT] = NONE;
+        for (int letter = 0; letter < LETTERS; letter++) {
+            int child = next[ROOT][letter];
+            if (child == NONE)
+                next[ROOT][letter] = ROOT;
+            else {
+                failure[child] = ROOT;
+                dictionary[child] = NONE;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int letter = 0; letter < LETTERS; letter++) {
+                int child = next[state][letter];
+                if (child == NONE) {
+                    next[state][letter] = next[failure[state]][letter];
+                    continue;
+                }
+                int link = next[failure[state]][letter];
+                failure[child] = link;
+                dictionary[child] = word[link] != NONE ? link : dictionary[link];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * @return the state after reading the letter, {@link #ROOT} for a character out of A to Z
+     */
+    int read(int state, char letter) {
+        return letter >= 'A' && letter <= 'Z' ? next[state][letter - 'A'] : ROOT;
+    }
+
+    /**
+     * Receives the words ending at the last letter read
+     */
+    interface Match {
+        void accept(int word, int length);
+    }
+
+    /**
+     * Give all the words ending at the last letter read, the longest first
+     */
+    void matches(int state, Match match) {
+        for (int found = word[state] != NONE ? state : dictionary[state]; found != NONE; found = dictionary[found])
+            match.accept(word[found], words.get(word[found]).length());
+    }
+
+}